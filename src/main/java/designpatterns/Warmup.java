@@ -0,0 +1,92 @@
+package designpatterns;
+
+import designpatterns.abstractfactory.GUIApplication;
+import designpatterns.abstractfactory.GUIFactory;
+import designpatterns.abstractfactory.OSTypes;
+import designpatterns.chainofresponsibility.Request;
+import designpatterns.chainofresponsibility.RequestType;
+import designpatterns.chainofresponsibility.SupportHandler;
+import designpatterns.chainofresponsibility.SupportHandlerChain;
+import designpatterns.factory.Document;
+import designpatterns.factory.DocumentFactory;
+import designpatterns.factory.DocumentTypes;
+import designpatterns.singleton.SingletonEager;
+import designpatterns.singleton.SingletonEnum;
+import designpatterns.singleton.SingletonLazy;
+import designpatterns.singleton.SingletonThreadSafe;
+import designpatterns.singleton.SingletonWithCloning;
+import designpatterns.singleton.SingletonWithReflection;
+import designpatterns.singleton.SingletonWithSerialization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Startup mode that moves class loading and static initialization of the factories, the default support chain
+ * and the singletons off the first request. Call {@link #initialize()} early during startup.
+ * <p>
+ * {@link #main(String[])} is also the training run for the AppCDS archive built by the {@code appcds} Maven
+ * profile and reports the time from JVM start to the first handled {@link Request} and first opened
+ * {@link Document}.
+ */
+public class Warmup {
+  private static final Logger log = LoggerFactory.getLogger(Warmup.class);
+
+  private static volatile boolean initialized;
+
+  private Warmup() {}
+
+  public static void initialize() {
+    if(initialized) {
+      return;
+    }
+    synchronized (Warmup.class) {
+      if(initialized) {
+        return;
+      }
+      for(DocumentTypes type : DocumentTypes.values()) {
+        DocumentFactory.getDocument(type);
+      }
+      for(OSTypes type : OSTypes.values()) {
+        final GUIFactory factory = GUIApplication.getGUIFactory(type);
+        factory.createButton();
+        factory.createCheckbox();
+        factory.createInput();
+      }
+      final SupportHandler chain = SupportHandlerChain.getDefaultChain();
+      for(RequestType type : RequestType.values()) {
+        chain.canHandle(new Request(type, ""));
+      }
+      SingletonEager.getInstance();
+      SingletonLazy.getInstance();
+      SingletonThreadSafe.getInstance();
+      SingletonWithCloning.getInstance();
+      SingletonWithReflection.getInstance();
+      SingletonWithSerialization.getInstance();
+      SingletonEnum.valueOf(SingletonEnum.INSTANCE.name());
+      initialized = true;
+    }
+  }
+
+  public static void main(String[] args) {
+    final Instant jvmStart = Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime());
+    if(args.length == 0 || !args[0].equals("--no-warmup")) {
+      initialize();
+    }
+    final Duration warm = Duration.between(jvmStart, Instant.now());
+
+    SupportHandlerChain.getDefaultChain().handleRequest(new Request(RequestType.BILLING, "Refund not initiated."));
+    final Duration firstRequest = Duration.between(jvmStart, Instant.now());
+
+    final Document document = DocumentFactory.getDocument(DocumentTypes.REPORT);
+    document.open();
+    document.close();
+    final Duration firstDocument = Duration.between(jvmStart, Instant.now());
+
+    log.info("Initialized after {} ms, first request handled after {} ms, first document opened after {} ms.",
+             warm.toMillis(), firstRequest.toMillis(), firstDocument.toMillis());
+  }
+}
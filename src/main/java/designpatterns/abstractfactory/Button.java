@@ -2,4 +2,12 @@ package designpatterns.abstractfactory;
 
 public interface Button {
   void render();
+
+  /**
+   * Renders a button with the given label. Implementations keep no widget state, so one instance can render
+   * every widget of its kind on a {@link Form}.
+   */
+  default void render(String label) {
+    render();
+  }
 }
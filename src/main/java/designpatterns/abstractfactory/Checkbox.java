@@ -2,4 +2,12 @@ package designpatterns.abstractfactory;
 
 public interface Checkbox {
   void render();
+
+  /**
+   * Renders a checkbox with the given label and state. Implementations keep no widget state, so one instance can render
+   * every widget of its kind on a {@link Form}.
+   */
+  default void render(String label, boolean checked) {
+    render();
+  }
 }
@@ -0,0 +1,184 @@
+package designpatterns.abstractfactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * Form of buttons, checkboxes and inputs whose state is kept in a compact store rather than in widget objects.
+ * <p>
+ * Widgets are identified by the index returned when they are added. Their kind, text (the label of a button or
+ * checkbox, the value of an input) and checked state are kept in parallel arrays, and every change marks the
+ * widget dirty. {@link #render()} renders only the dirty widgets, using one renderer per kind created by the
+ * {@link GUIFactory} of the current theme; {@link #reskin(OSTypes)} swaps those renderers and marks every widget
+ * dirty, without touching the widget state.
+ * <p>
+ * A form is not thread-safe and is meant to be used from the UI thread.
+ */
+public class Form {
+  private static final Logger log = LoggerFactory.getLogger(Form.class);
+
+  public enum Kind {
+    BUTTON, CHECKBOX, INPUT
+  }
+
+  private static final Kind[] KINDS = Kind.values();
+
+  private OSTypes theme;
+  private Button button;
+  private Checkbox checkbox;
+  private Input input;
+
+  private byte[] kinds = new byte[16];
+  private String[] texts = new String[16];
+  private final BitSet checked = new BitSet();
+  private final BitSet dirty = new BitSet();
+  private int size;
+
+  public Form(OSTypes theme) {
+    reskin(theme);
+  }
+
+  public int addButton(String label) {
+    return add(Kind.BUTTON, label, false);
+  }
+
+  public int addCheckbox(String label, boolean checked) {
+    return add(Kind.CHECKBOX, label, checked);
+  }
+
+  public int addInput(String value) {
+    return add(Kind.INPUT, value, false);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public Kind getKind(int widget) {
+    return KINDS[kinds[checkIndex(widget)]];
+  }
+
+  public String getLabel(int widget) {
+    check(widget, Kind.BUTTON, Kind.CHECKBOX);
+    return texts[widget];
+  }
+
+  public void setLabel(int widget, String label) {
+    check(widget, Kind.BUTTON, Kind.CHECKBOX);
+    setText(widget, label);
+  }
+
+  public String getValue(int widget) {
+    check(widget, Kind.INPUT, Kind.INPUT);
+    return texts[widget];
+  }
+
+  public void setValue(int widget, String value) {
+    check(widget, Kind.INPUT, Kind.INPUT);
+    setText(widget, value);
+  }
+
+  public boolean isChecked(int widget) {
+    check(widget, Kind.CHECKBOX, Kind.CHECKBOX);
+    return checked.get(widget);
+  }
+
+  public void setChecked(int widget, boolean value) {
+    check(widget, Kind.CHECKBOX, Kind.CHECKBOX);
+    if(checked.get(widget) != value) {
+      checked.set(widget, value);
+      dirty.set(widget);
+    }
+  }
+
+  public int getDirtyCount() {
+    return dirty.cardinality();
+  }
+
+  public OSTypes getTheme() {
+    return theme;
+  }
+
+  /**
+   * Renders the widgets changed since the last render and returns how many were rendered.
+   */
+  public int render() {
+    final int count = dirty.cardinality();
+    for(int widget = dirty.nextSetBit(0); widget >= 0; widget = dirty.nextSetBit(widget + 1)) {
+      renderWidget(widget);
+    }
+    dirty.clear();
+    return count;
+  }
+
+  /**
+   * Renders every widget, whether changed or not, and returns how many were rendered.
+   */
+  public int renderAll() {
+    for(int widget = 0; widget < size; widget++) {
+      renderWidget(widget);
+    }
+    dirty.clear();
+    return size;
+  }
+
+  /**
+   * Switches the form to another theme. The widget state is kept; every widget is re-rendered by the next
+   * {@link #render()}.
+   */
+  public void reskin(OSTypes theme) {
+    final GUIFactory factory = GUIApplication.getGUIFactory(Objects.requireNonNull(theme));
+    this.button = factory.createButton();
+    this.checkbox = factory.createCheckbox();
+    this.input = factory.createInput();
+    this.theme = theme;
+    dirty.set(0, size);
+    log.debug("Reskinned form of {} widgets to {}.", size, theme);
+  }
+
+  private int add(Kind kind, String text, boolean value) {
+    if(size == kinds.length) {
+      kinds = Arrays.copyOf(kinds, size * 2);
+      texts = Arrays.copyOf(texts, size * 2);
+    }
+    final int widget = size++;
+    kinds[widget] = (byte) kind.ordinal();
+    texts[widget] = text;
+    checked.set(widget, value);
+    dirty.set(widget);
+    return widget;
+  }
+
+  private void setText(int widget, String text) {
+    if(!Objects.equals(texts[widget], text)) {
+      texts[widget] = text;
+      dirty.set(widget);
+    }
+  }
+
+  private void renderWidget(int widget) {
+    switch (KINDS[kinds[widget]]) {
+      case BUTTON -> button.render(texts[widget]);
+      case CHECKBOX -> checkbox.render(texts[widget], checked.get(widget));
+      case INPUT -> input.render(texts[widget]);
+    }
+  }
+
+  private int checkIndex(int widget) {
+    if(widget < 0 || widget >= size) {
+      throw new IndexOutOfBoundsException("Widget " + widget + " of " + size + ".");
+    }
+    return widget;
+  }
+
+  private void check(int widget, Kind first, Kind second) {
+    final Kind kind = KINDS[kinds[checkIndex(widget)]];
+    if(kind != first && kind != second) {
+      throw new IllegalArgumentException("Widget " + widget + " is a " + kind + ".");
+    }
+  }
+}
@@ -2,4 +2,12 @@ package designpatterns.abstractfactory;
 
 public interface Input {
   void render();
+
+  /**
+   * Renders an input holding the given value. Implementations keep no widget state, so one instance can render
+   * every widget of its kind on a {@link Form}.
+   */
+  default void render(String value) {
+    render();
+  }
 }
@@ -10,4 +10,9 @@ public class MacOSButton implements Button {
   public void render() {
     log.info("Rendering MacOS Button.");
   }
+
+  @Override
+  public void render(String label) {
+    log.debug("Rendering MacOS Button '{}'.", label);
+  }
 }
@@ -10,4 +10,9 @@ public class MacOSCheckbox implements Checkbox {
   public void render() {
     log.info("Rendering MacOS Checkbox.");
   }
+
+  @Override
+  public void render(String label, boolean checked) {
+    log.debug("Rendering MacOS Checkbox '{}', checked {}.", label, checked);
+  }
 }
@@ -10,4 +10,9 @@ public class MacOSInput implements Input {
   public void render() {
     log.info("Rendering MacOS Input.");
   }
+
+  @Override
+  public void render(String value) {
+    log.debug("Rendering MacOS Input with '{}'.", value);
+  }
 }
@@ -10,4 +10,9 @@ public class WindowsButton implements Button {
   public void render() {
     log.info("Rendering Windows Button.");
   }
+
+  @Override
+  public void render(String label) {
+    log.debug("Rendering Windows Button '{}'.", label);
+  }
 }
@@ -10,4 +10,9 @@ public class WindowsCheckbox implements Checkbox {
   public void render() {
     log.info("Rendering Windows Checkbox.");
   }
+
+  @Override
+  public void render(String label, boolean checked) {
+    log.debug("Rendering Windows Checkbox '{}', checked {}.", label, checked);
+  }
 }
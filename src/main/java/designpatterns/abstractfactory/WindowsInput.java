@@ -10,4 +10,9 @@ public class WindowsInput implements Input {
   public void render() {
     log.info("Rendering Windows Input.");
   }
+
+  @Override
+  public void render(String value) {
+    log.debug("Rendering Windows Input with '{}'.", value);
+  }
 }
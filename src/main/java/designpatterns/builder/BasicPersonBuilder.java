@@ -2,7 +2,8 @@ package designpatterns.builder;
 
 public class BasicPersonBuilder implements PersonBuilder {
   private String name;
-  private int age;
+  // 0 until set, as before, but an explicit null is kept so a person without an age can be rebuilt.
+  private Integer age = 0;
   private String gender;
   private String address;
 
@@ -30,6 +31,15 @@ public class BasicPersonBuilder implements PersonBuilder {
     return this;
   }
 
+  @Override
+  public PersonBuilder reset() {
+    this.name = null;
+    this.age = 0;
+    this.gender = null;
+    this.address = null;
+    return this;
+  }
+
   @Override
   public Person build() {
     return new Person(name, age, gender, address);
@@ -5,5 +5,6 @@ public interface PersonBuilder {
   PersonBuilder setAge(Integer age);
   PersonBuilder setGender(String gender);
   PersonBuilder setAddress(String address);
+  PersonBuilder reset();
   Person build();
 }
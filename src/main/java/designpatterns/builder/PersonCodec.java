@@ -0,0 +1,92 @@
+package designpatterns.builder;
+
+import java.nio.ByteBuffer;
+
+import static designpatterns.codec.BinaryCodec.getSignedVarInt;
+import static designpatterns.codec.BinaryCodec.getString;
+import static designpatterns.codec.BinaryCodec.putSignedVarInt;
+import static designpatterns.codec.BinaryCodec.putString;
+import static designpatterns.codec.BinaryCodec.signedVarIntSize;
+import static designpatterns.codec.BinaryCodec.stringSize;
+
+/**
+ * Compact binary encoding of {@link Person}: a schema version byte, a bitmap of the fields that are present and
+ * then each present field, ints as zig-zag varints and strings as length-prefixed UTF-8.
+ */
+public class PersonCodec {
+
+  public static final byte VERSION = 1;
+
+  private static final int NAME = 1;
+  private static final int AGE = 1 << 1;
+  private static final int GENDER = 1 << 2;
+  private static final int ADDRESS = 1 << 3;
+
+  private PersonCodec() {}
+
+  public static int encodedSize(Person person) {
+    int size = 2;
+    if(person.getName() != null) {
+      size += stringSize(person.getName());
+    }
+    if(person.getAge() != null) {
+      size += signedVarIntSize(person.getAge());
+    }
+    if(person.getGender() != null) {
+      size += stringSize(person.getGender());
+    }
+    if(person.getAddress() != null) {
+      size += stringSize(person.getAddress());
+    }
+    return size;
+  }
+
+  public static void encode(Person person, ByteBuffer buffer) {
+    int fields = 0;
+    fields |= person.getName() != null ? NAME : 0;
+    fields |= person.getAge() != null ? AGE : 0;
+    fields |= person.getGender() != null ? GENDER : 0;
+    fields |= person.getAddress() != null ? ADDRESS : 0;
+
+    buffer.put(VERSION).put((byte) fields);
+    if((fields & NAME) != 0) {
+      putString(buffer, person.getName());
+    }
+    if((fields & AGE) != 0) {
+      putSignedVarInt(buffer, person.getAge());
+    }
+    if((fields & GENDER) != 0) {
+      putString(buffer, person.getGender());
+    }
+    if((fields & ADDRESS) != 0) {
+      putString(buffer, person.getAddress());
+    }
+  }
+
+  public static Person decode(ByteBuffer buffer) {
+    return decode(buffer, new BasicPersonBuilder());
+  }
+
+  /**
+   * Decodes one person through the given builder, which is reset first so it can be reused across records.
+   */
+  public static Person decode(ByteBuffer buffer, PersonBuilder builder) {
+    final byte version = buffer.get();
+    if(version != VERSION) {
+      throw new IllegalArgumentException("Unsupported person schema version " + version + ".");
+    }
+    final int fields = buffer.get();
+    builder.reset();
+    if((fields & NAME) != 0) {
+      builder.setName(getString(buffer));
+    }
+    builder.setAge((fields & AGE) != 0 ? Integer.valueOf(getSignedVarInt(buffer)) : null);
+    if((fields & GENDER) != 0) {
+      builder.setGender(getString(buffer));
+    }
+    if((fields & ADDRESS) != 0) {
+      builder.setAddress(getString(buffer));
+    }
+    return builder.build();
+  }
+}
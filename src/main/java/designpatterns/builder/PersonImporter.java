@@ -0,0 +1,60 @@
+package designpatterns.builder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams {@link Person} records out of large CSV or JSON-lines files.
+ * <p>
+ * The file is memory-mapped in windows and parsed in place: ages are read straight from the bytes and strings
+ * are decoded from a reusable scratch array, with one reused {@link PersonBuilder} per split. The returned
+ * stream splits on line boundaries, so it can be made {@link Stream#parallel() parallel}. It must be closed to
+ * release the file.
+ * <p>
+ * CSV rows are {@code name,age,gender,address}; fields may be double-quoted with {@code ""} as the escaped
+ * quote, but may not contain line breaks. JSON lines are flat objects with any of the {@code name}, {@code age},
+ * {@code gender} and {@code address} keys; other keys are ignored. Empty fields, missing keys and {@code null}
+ * values are left unset.
+ */
+public class PersonImporter {
+
+  public enum Format {
+    CSV, JSON_LINES
+  }
+
+  private PersonImporter() {}
+
+  public static Stream<Person> csv(Path path, boolean header) {
+    return stream(path, Format.CSV, header);
+  }
+
+  public static Stream<Person> jsonLines(Path path) {
+    return stream(path, Format.JSON_LINES, false);
+  }
+
+  public static Stream<Person> stream(Path path, Format format, boolean header) {
+    try {
+      final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+      try {
+        final PersonSpliterator spliterator = new PersonSpliterator(channel, format, header);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+          try {
+            channel.close();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+      } catch (IOException | RuntimeException e) {
+        channel.close();
+        throw e;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,484 @@
+package designpatterns.builder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the lines of a memory-mapped file of person records. It owns the lines starting within
+ * {@code [position, end)}; splits always happen on a line start. See {@link PersonImporter} for the formats.
+ */
+class PersonSpliterator implements Spliterator<Person> {
+
+  static final int WINDOW = 64 * 1024 * 1024;
+  private static final int MIN_SPLIT = 1024 * 1024;
+  private static final int AVERAGE_LINE = 64;
+
+  private static final byte[] NAME = "name".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] AGE = "age".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] GENDER = "gender".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] ADDRESS = "address".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+  private final FileChannel channel;
+  private final long size;
+  private final int window;
+  private final PersonImporter.Format format;
+  private final PersonBuilder builder = new BasicPersonBuilder();
+
+  private long position;
+  private long end;
+  private MappedByteBuffer mapped;
+  private long mappedStart;
+  private byte[] scratch = new byte[256];
+  private int scratchLength;
+  private int cursor;
+  private int lineEnd;
+
+  PersonSpliterator(FileChannel channel, PersonImporter.Format format, boolean header) throws IOException {
+    this(channel, format, channel.size(), WINDOW);
+    if(header) {
+      this.position = nextLineStart(0);
+    }
+  }
+
+  PersonSpliterator(FileChannel channel, PersonImporter.Format format, long size, int window) {
+    this.channel = channel;
+    this.format = format;
+    this.size = size;
+    this.window = window;
+    this.end = size;
+  }
+
+  private PersonSpliterator(PersonSpliterator parent, long position, long end) {
+    this(parent.channel, parent.format, parent.size, parent.window);
+    this.position = position;
+    this.end = end;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super Person> action) {
+    while(position < end) {
+      final long lineOffset = position;
+      final int from = nextLine();
+      final int to = cursor;
+      if(isBlank(from, to)) {
+        continue;
+      }
+      lineEnd = to;
+      try {
+        builder.reset();
+        if(format == PersonImporter.Format.CSV) {
+          parseCsv(from, to);
+        }
+        else {
+          parseJson(from, to);
+        }
+      } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+        throw new IllegalArgumentException("Malformed person record at byte " + lineOffset + ".", e);
+      }
+      action.accept(builder.build());
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public Spliterator<Person> trySplit() {
+    if(end - position < 2L * MIN_SPLIT) {
+      return null;
+    }
+    final long split;
+    try {
+      split = nextLineStart(position + (end - position) / 2);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if(split >= end) {
+      return null;
+    }
+    final PersonSpliterator prefix = new PersonSpliterator(this, position, split);
+    this.position = split;
+    return prefix;
+  }
+
+  @Override
+  public long estimateSize() {
+    return Math.max(0, (end - position) / AVERAGE_LINE);
+  }
+
+  @Override
+  public int characteristics() {
+    return ORDERED | NONNULL | IMMUTABLE;
+  }
+
+  /**
+   * Locates the line at {@link #position} inside the mapped window, remapping if needed, and advances past it.
+   * Returns the window offset of the line start and leaves the offset of its end, without the line break, in
+   * {@link #cursor}.
+   */
+  private int nextLine() {
+    if(mapped == null || position >= mappedStart + mapped.limit()) {
+      map(position);
+    }
+    int newline = newline((int) (position - mappedStart));
+    if(newline < 0 && mappedStart + mapped.limit() < size && position != mappedStart) {
+      map(position);
+      newline = newline(0);
+    }
+    if(newline < 0 && mappedStart + mapped.limit() < size) {
+      throw new IllegalArgumentException("Line at byte " + position + " is longer than " + window + " bytes.");
+    }
+    final int from = (int) (position - mappedStart);
+    final int limit = newline < 0 ? mapped.limit() : newline;
+    position = mappedStart + (newline < 0 ? limit : newline + 1);
+    cursor = limit > from && mapped.get(limit - 1) == '\r' ? limit - 1 : limit;
+    return from;
+  }
+
+  private int newline(int from) {
+    final int limit = mapped.limit();
+    for(int i = from; i < limit; i++) {
+      if(mapped.get(i) == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void map(long start) {
+    try {
+      mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(window, size - start));
+      mappedStart = start;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private long nextLineStart(long from) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+    long offset = from;
+    while(offset < size) {
+      buffer.clear();
+      final int read = channel.read(buffer, offset);
+      if(read <= 0) {
+        break;
+      }
+      for(int i = 0; i < read; i++) {
+        if(buffer.get(i) == '\n') {
+          return offset + i + 1;
+        }
+      }
+      offset += read;
+    }
+    return size;
+  }
+
+  private boolean isBlank(int from, int to) {
+    for(int i = from; i < to; i++) {
+      final byte b = mapped.get(i);
+      if(b != ' ' && b != '\t') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void parseCsv(int from, int to) {
+    cursor = from;
+    for(int field = 0; field < 4 && cursor <= to; field++) {
+      if(cursor < to && at(cursor) == '"') {
+        readQuoted(to);
+        if(field == 1) {
+          if(scratchLength > 0) {
+            builder.setAge(Integer.parseInt(scratchString().trim()));
+          }
+        }
+        else {
+          set(field, scratchLength == 0 ? null : scratchString());
+        }
+      }
+      else {
+        final int start = cursor;
+        while(cursor < to && at(cursor) != ',') {
+          cursor++;
+        }
+        if(field == 1) {
+          if(start < cursor) {
+            builder.setAge(parseInt(start, cursor));
+          }
+        }
+        else {
+          set(field, start == cursor ? null : string(start, cursor));
+        }
+      }
+      cursor++;
+    }
+  }
+
+  private void readQuoted(int to) {
+    scratchLength = 0;
+    cursor++;
+    while(true) {
+      if(cursor >= to) {
+        throw new IllegalArgumentException("Unterminated quoted field.");
+      }
+      final byte b = at(cursor++);
+      if(b == '"') {
+        if(cursor < to && at(cursor) == '"') {
+          append(b);
+          cursor++;
+        }
+        else {
+          break;
+        }
+      }
+      else {
+        append(b);
+      }
+    }
+    if(cursor < to && at(cursor) != ',') {
+      throw new IllegalArgumentException("Unexpected character after quoted field.");
+    }
+  }
+
+  private void parseJson(int from, int to) {
+    cursor = from;
+    skipWhitespace(to);
+    expect('{');
+    skipWhitespace(to);
+    if(at(cursor) == '}') {
+      return;
+    }
+    while(true) {
+      skipWhitespace(to);
+      expect('"');
+      final int keyStart = cursor;
+      while(at(cursor) != '"') {
+        cursor++;
+      }
+      final int field = field(keyStart, cursor);
+      cursor++;
+      skipWhitespace(to);
+      expect(':');
+      skipWhitespace(to);
+      readJsonValue(field, to);
+      skipWhitespace(to);
+      final byte b = at(cursor++);
+      if(b == '}') {
+        return;
+      }
+      if(b != ',') {
+        throw new IllegalArgumentException("Expected ',' or '}'.");
+      }
+    }
+  }
+
+  private void readJsonValue(int field, int to) {
+    if(at(cursor) == '"') {
+      readJsonString(to);
+      if(field >= 0 && field != 1) {
+        set(field, scratchString());
+      }
+      return;
+    }
+    final int start = cursor;
+    while(cursor < to) {
+      final byte b = at(cursor);
+      if(b == ',' || b == '}' || b == ' ' || b == '\t') {
+        break;
+      }
+      cursor++;
+    }
+    if(field == 1 && !matches(start, cursor, NULL)) {
+      builder.setAge(parseInt(start, cursor));
+    }
+  }
+
+  private void readJsonString(int to) {
+    scratchLength = 0;
+    cursor++;
+    while(true) {
+      if(cursor >= to) {
+        throw new IllegalArgumentException("Unterminated string.");
+      }
+      final byte b = at(cursor++);
+      if(b == '"') {
+        return;
+      }
+      if(b != '\\') {
+        append(b);
+        continue;
+      }
+      final byte escaped = at(cursor++);
+      switch (escaped) {
+        case 'n' -> append((byte) '\n');
+        case 't' -> append((byte) '\t');
+        case 'r' -> append((byte) '\r');
+        case 'b' -> append((byte) '\b');
+        case 'f' -> append((byte) '\f');
+        case 'u' -> {
+          int codePoint = hex(cursor);
+          cursor += 4;
+          if(Character.isHighSurrogate((char) codePoint) && cursor + 6 <= to
+             && at(cursor) == '\\' && at(cursor + 1) == 'u') {
+            final int low = hex(cursor + 2);
+            if(Character.isLowSurrogate((char) low)) {
+              codePoint = Character.toCodePoint((char) codePoint, (char) low);
+              cursor += 6;
+            }
+          }
+          appendCodePoint(codePoint);
+        }
+        default -> append(escaped);
+      }
+    }
+  }
+
+  private int field(int from, int to) {
+    if(matches(from, to, NAME)) {
+      return 0;
+    }
+    if(matches(from, to, AGE)) {
+      return 1;
+    }
+    if(matches(from, to, GENDER)) {
+      return 2;
+    }
+    if(matches(from, to, ADDRESS)) {
+      return 3;
+    }
+    return -1;
+  }
+
+  private void set(int field, String value) {
+    switch (field) {
+      case 0 -> builder.setName(value);
+      case 2 -> builder.setGender(value);
+      case 3 -> builder.setAddress(value);
+      default -> throw new IllegalArgumentException("Unexpected field " + field + ".");
+    }
+  }
+
+  private int parseInt(int from, int to) {
+    while(from < to && at(from) == ' ') {
+      from++;
+    }
+    while(to > from && at(to - 1) == ' ') {
+      to--;
+    }
+    final boolean negative = from < to && at(from) == '-';
+    if(negative) {
+      from++;
+    }
+    if(from == to) {
+      throw new IllegalArgumentException("Expected a number.");
+    }
+    long value = 0;
+    for(int i = from; i < to; i++) {
+      final int digit = at(i) - '0';
+      if(digit < 0 || digit > 9 || (value = value * 10 + digit) > (negative ? Integer.MAX_VALUE + 1L : Integer.MAX_VALUE)) {
+        throw new IllegalArgumentException("Invalid number.");
+      }
+    }
+    return (int) (negative ? -value : value);
+  }
+
+  private String string(int from, int to) {
+    scratchLength = 0;
+    ensureScratch(to - from);
+    mapped.get(from, scratch, 0, to - from);
+    scratchLength = to - from;
+    return scratchString();
+  }
+
+  private String scratchString() {
+    return new String(scratch, 0, scratchLength, StandardCharsets.UTF_8);
+  }
+
+  private void append(byte b) {
+    ensureScratch(scratchLength + 1);
+    scratch[scratchLength++] = b;
+  }
+
+  private void appendCodePoint(int codePoint) {
+    if(codePoint < 0x80) {
+      append((byte) codePoint);
+    }
+    else if(codePoint < 0x800) {
+      append((byte) (0xc0 | (codePoint >>> 6)));
+      append((byte) (0x80 | (codePoint & 0x3f)));
+    }
+    else if(codePoint < 0x10000) {
+      append((byte) (0xe0 | (codePoint >>> 12)));
+      append((byte) (0x80 | ((codePoint >>> 6) & 0x3f)));
+      append((byte) (0x80 | (codePoint & 0x3f)));
+    }
+    else {
+      append((byte) (0xf0 | (codePoint >>> 18)));
+      append((byte) (0x80 | ((codePoint >>> 12) & 0x3f)));
+      append((byte) (0x80 | ((codePoint >>> 6) & 0x3f)));
+      append((byte) (0x80 | (codePoint & 0x3f)));
+    }
+  }
+
+  private void ensureScratch(int length) {
+    if(length > scratch.length) {
+      final byte[] grown = new byte[Math.max(length, scratch.length * 2)];
+      System.arraycopy(scratch, 0, grown, 0, scratchLength);
+      scratch = grown;
+    }
+  }
+
+  private int hex(int from) {
+    int value = 0;
+    for(int i = from; i < from + 4; i++) {
+      final int digit = Character.digit(at(i), 16);
+      if(digit < 0) {
+        throw new IllegalArgumentException("Invalid unicode escape.");
+      }
+      value = (value << 4) | digit;
+    }
+    return value;
+  }
+
+  private void skipWhitespace(int to) {
+    while(cursor < to) {
+      final byte b = at(cursor);
+      if(b != ' ' && b != '\t') {
+        return;
+      }
+      cursor++;
+    }
+  }
+
+  private void expect(char c) {
+    if(at(cursor++) != c) {
+      throw new IllegalArgumentException("Expected '" + c + "'.");
+    }
+  }
+
+  private byte at(int index) {
+    if(index >= lineEnd) {
+      throw new IllegalArgumentException("Unexpected end of line.");
+    }
+    return mapped.get(index);
+  }
+
+  private boolean matches(int from, int to, byte[] expected) {
+    if(to - from != expected.length) {
+      return false;
+    }
+    for(int i = 0; i < expected.length; i++) {
+      if(at(from + i) != expected[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -7,12 +7,12 @@ public class BillingSupportHandler extends DefaultSupportHandler {
   private static final Logger log = LoggerFactory.getLogger(BillingSupportHandler.class);
 
   @Override
-  public void handleRequest(Request request) {
-    if(request.getType().equals(RequestType.BILLING)) {
-      log.info("Billing support.");
-    }
-    else {
-      this.next.handleRequest(request);
-    }
+  public boolean canHandle(Request request) {
+    return request.getType().equals(RequestType.BILLING);
+  }
+
+  @Override
+  public void process(Request request) {
+    log.info("Billing support.");
   }
 }
@@ -0,0 +1,102 @@
+package designpatterns.chainofresponsibility;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Broadcast mode for the support handlers: instead of stopping at the first match, a request is delivered
+ * concurrently to every handler that {@link SupportHandler#canHandle(Request) can handle} it and the outcomes
+ * are merged. The fallback handler is only used when no handler is interested.
+ */
+public class BroadcastSupportDispatcher {
+
+  public enum Ordering {
+    /** Outcomes are reported in the order the handlers were registered. */
+    HANDLER_ORDER,
+    /** Outcomes are reported in the order the handlers finished. */
+    COMPLETION_ORDER
+  }
+
+  public enum Status {
+    HANDLED, TIMED_OUT, FAILED
+  }
+
+  public record Outcome(SupportHandler handler, Status status, Throwable failure) {}
+
+  private final List<SupportHandler> handlers;
+  private final SupportHandler fallback;
+  private final Executor executor;
+  private final Ordering ordering;
+  private final Duration defaultTimeout;
+  private final Map<SupportHandler, Duration> timeouts = new IdentityHashMap<>();
+
+  public BroadcastSupportDispatcher(List<SupportHandler> handlers, Executor executor, Duration defaultTimeout, Ordering ordering) {
+    this.handlers = List.copyOf(handlers);
+    this.fallback = new NoSupportHandler();
+    this.executor = executor;
+    this.defaultTimeout = defaultTimeout;
+    this.ordering = ordering;
+  }
+
+  /**
+   * Overrides the default timeout for one handler. Must be called before the dispatcher is shared.
+   */
+  public BroadcastSupportDispatcher setTimeout(SupportHandler handler, Duration timeout) {
+    if(!handlers.contains(handler)) {
+      throw new IllegalArgumentException("Handler is not registered with this dispatcher.");
+    }
+    timeouts.put(handler, timeout);
+    return this;
+  }
+
+  /**
+   * Delivers the request to every interested handler and waits until each one has finished, failed or timed out.
+   * A timed out handler is reported as such, but it is not interrupted and may still complete in the background,
+   * which is why a {@link ReusableRequest} is copied first.
+   */
+  public List<Outcome> dispatch(Request original) {
+    final Request request = original.snapshot();
+    final List<SupportHandler> interested = handlers.stream().filter(handler -> handler.canHandle(request)).toList();
+    if(interested.isEmpty()) {
+      fallback.process(request);
+      return List.of(new Outcome(fallback, Status.HANDLED, null));
+    }
+
+    final Queue<Outcome> completed = new ConcurrentLinkedQueue<>();
+    final List<CompletableFuture<Outcome>> futures = new ArrayList<>(interested.size());
+    for(SupportHandler handler : interested) {
+      final long timeout = timeouts.getOrDefault(handler, defaultTimeout).toNanos();
+      futures.add(CompletableFuture.runAsync(() -> handler.process(request), executor)
+                                   .orTimeout(timeout, TimeUnit.NANOSECONDS)
+                                   .handle((ignored, failure) -> outcome(handler, failure))
+                                   .whenComplete((outcome, ignored) -> completed.add(outcome)));
+    }
+    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+    return switch (ordering) {
+      case HANDLER_ORDER -> futures.stream().map(CompletableFuture::join).toList();
+      case COMPLETION_ORDER -> List.copyOf(completed);
+    };
+  }
+
+  private static Outcome outcome(SupportHandler handler, Throwable failure) {
+    if(failure == null) {
+      return new Outcome(handler, Status.HANDLED, null);
+    }
+    final Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+    if(cause instanceof TimeoutException) {
+      return new Outcome(handler, Status.TIMED_OUT, cause);
+    }
+    return new Outcome(handler, Status.FAILED, cause);
+  }
+}
@@ -3,8 +3,23 @@ package designpatterns.chainofresponsibility;
 public abstract class DefaultSupportHandler implements SupportHandler {
   protected SupportHandler next;
 
+  @Override
+  public void handleRequest(Request request) {
+    if(canHandle(request)) {
+      process(request);
+    }
+    else {
+      this.next.handleRequest(request);
+    }
+  }
+
   @Override
   public void nextHandler(SupportHandler handler) {
     this.next = handler;
   }
+
+  @Override
+  public boolean canChainHandle(Request request) {
+    return canHandle(request) || next != null && next.canChainHandle(request);
+  }
 }
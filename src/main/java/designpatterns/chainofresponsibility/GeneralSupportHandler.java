@@ -7,12 +7,12 @@ public class GeneralSupportHandler extends DefaultSupportHandler {
   private static final Logger log = LoggerFactory.getLogger(GeneralSupportHandler.class);
 
   @Override
-  public void handleRequest(Request request) {
-    if(request.getType().equals(RequestType.GENERAL)) {
-      log.info("General support.");
-    }
-    else {
-      this.next.handleRequest(request);
-    }
+  public boolean canHandle(Request request) {
+    return request.getType().equals(RequestType.GENERAL);
+  }
+
+  @Override
+  public void process(Request request) {
+    log.info("General support.");
   }
 }
@@ -0,0 +1,64 @@
+package designpatterns.chainofresponsibility;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sits in front of a support chain and records every request in a {@link RequestJournal} before it is
+ * dispatched, marking it completed once the chain returns.
+ */
+public class JournalingSupportHandler implements SupportHandler {
+  private static final Logger log = LoggerFactory.getLogger(JournalingSupportHandler.class);
+
+  private final RequestJournal journal;
+  private final SupportHandler chain;
+
+  public JournalingSupportHandler(RequestJournal journal, SupportHandler chain) {
+    this.journal = journal;
+    this.chain = chain;
+  }
+
+  /**
+   * Dispatches the requests left uncompleted by a previous run, oldest first, and returns how many were replayed.
+   */
+  public int recover() {
+    int replayed = 0;
+    for(RequestJournal.Entry entry : journal.pending()) {
+      chain.handleRequest(entry.request());
+      journal.complete(entry.id());
+      replayed++;
+    }
+    if(replayed > 0) {
+      log.info("Replayed {} uncompleted requests.", replayed);
+    }
+    return replayed;
+  }
+
+  @Override
+  public void handleRequest(Request request) {
+    final long id = journal.append(request);
+    chain.handleRequest(request);
+    journal.complete(id);
+  }
+
+  @Override
+  public void nextHandler(SupportHandler handler) {
+    throw new UnsupportedOperationException("Journaling handler wraps a complete chain.");
+  }
+
+  /**
+   * Whether any handler of the wrapped chain accepts the request.
+   */
+  @Override
+  public boolean canHandle(Request request) {
+    return chain.canChainHandle(request);
+  }
+
+  /**
+   * Journals and dispatches the request through the whole chain, as {@link #handleRequest(Request)} does.
+   */
+  @Override
+  public void process(Request request) {
+    handleRequest(request);
+  }
+}
@@ -0,0 +1,65 @@
+package designpatterns.chainofresponsibility;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Chain stage that diverts low-priority requests to {@link NoSupportHandler} when the system is overloaded.
+ * Each sheddable type has its own load threshold, so the least important types are shed first as the load
+ * reported by the supplier (typically a queue depth) grows. Types without a threshold are never shed.
+ */
+public class LoadSheddingSupportHandler extends DefaultSupportHandler {
+  private static final Logger log = LoggerFactory.getLogger(LoadSheddingSupportHandler.class);
+
+  private final IntSupplier load;
+  private final Map<RequestType, Integer> thresholds;
+  private final SupportHandler fallback = new NoSupportHandler();
+  private final LongAdder shed = new LongAdder();
+
+  /**
+   * Sheds {@link RequestType#COMPLAINT} requests once the load reaches the threshold.
+   */
+  public LoadSheddingSupportHandler(IntSupplier load, int threshold) {
+    this(load, Map.of(RequestType.COMPLAINT, threshold));
+  }
+
+  public LoadSheddingSupportHandler(IntSupplier load, Map<RequestType, Integer> thresholds) {
+    this.load = load;
+    this.thresholds = thresholds.isEmpty() ? new EnumMap<>(RequestType.class) : new EnumMap<>(thresholds);
+  }
+
+  @Override
+  public void handleRequest(Request request) {
+    final Integer threshold = thresholds.get(request.getType());
+    if(threshold != null && load.getAsInt() >= threshold) {
+      process(request);
+    }
+    else {
+      this.next.handleRequest(request);
+    }
+  }
+
+  /**
+   * A load shedder never handles requests itself.
+   */
+  @Override
+  public boolean canHandle(Request request) {
+    return false;
+  }
+
+  @Override
+  public void process(Request request) {
+    shed.increment();
+    log.debug("Shedding {} request under load.", request.getType());
+    fallback.process(request);
+  }
+
+  public long getShedCount() {
+    return shed.sum();
+  }
+}
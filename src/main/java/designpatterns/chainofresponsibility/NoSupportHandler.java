@@ -7,7 +7,12 @@ public class NoSupportHandler extends DefaultSupportHandler {
   private static final Logger log = LoggerFactory.getLogger(NoSupportHandler.class);
 
   @Override
-  public void handleRequest(Request request) {
+  public boolean canHandle(Request request) {
+    return true;
+  }
+
+  @Override
+  public void process(Request request) {
     log.info("No support handler.");
   }
 }
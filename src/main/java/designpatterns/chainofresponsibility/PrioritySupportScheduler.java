@@ -0,0 +1,224 @@
+package designpatterns.chainofresponsibility;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Queues requests per {@link RequestType} and feeds them to a chain in weighted fair order instead of arrival
+ * order.
+ * <p>
+ * Queues are served by weighted round robin over request counts: each turn, a type may dispatch up to its weight in
+ * requests before the next non-empty type is served, so a burst of one type cannot hold back the others. A request that has waited
+ * for the maximum wait is served ahead of the round robin, oldest first, so low-weight types are never starved.
+ * <p>
+ * Any number of threads may {@link #submit(Request) submit}; requests are dispatched one at a time, either by the
+ * thread started with {@link #start()} or by calling {@link #runNext()} directly.
+ */
+public class PrioritySupportScheduler implements AutoCloseable {
+  private static final Logger log = LoggerFactory.getLogger(PrioritySupportScheduler.class);
+
+  private static final RequestType[] TYPES = RequestType.values();
+
+  private record Pending(Request request, long enqueued, CompletableFuture<Void> result) {}
+
+  private final SupportHandler chain;
+  private final int[] weights = new int[TYPES.length];
+  private final long maxWaitNanos;
+  private final LongSupplier clockNanos;
+  private final List<Queue<Pending>> queues = new ArrayList<>(TYPES.length);
+  private final AtomicIntegerArray queued = new AtomicIntegerArray(TYPES.length);
+
+  // Round robin state, only touched while dispatching: requests the current type may still dispatch this turn.
+  private final int[] remaining = new int[TYPES.length];
+  private int current;
+
+  private volatile boolean running = true;
+  private volatile Thread worker;
+
+  /**
+   * @param weights requests dispatched per turn for each type, 1 for types not listed
+   * @param maxWait time after which a queued request is served ahead of the round robin
+   */
+  public PrioritySupportScheduler(SupportHandler chain, Map<RequestType, Integer> weights, Duration maxWait) {
+    this(chain, weights, maxWait, System::nanoTime);
+  }
+
+  public PrioritySupportScheduler(SupportHandler chain, Map<RequestType, Integer> weights, Duration maxWait,
+                                  LongSupplier clockNanos) {
+    final Map<RequestType, Integer> configured = weights.isEmpty() ? new EnumMap<>(RequestType.class)
+                                                                   : new EnumMap<>(weights);
+    for(RequestType type : TYPES) {
+      final int weight = configured.getOrDefault(type, 1);
+      if(weight < 1) {
+        throw new IllegalArgumentException("Weight of " + type + " must be positive, got " + weight + ".");
+      }
+      this.weights[type.ordinal()] = weight;
+      this.queues.add(new ConcurrentLinkedQueue<>());
+    }
+    this.chain = chain;
+    this.maxWaitNanos = maxWait.toNanos();
+    this.clockNanos = clockNanos;
+  }
+
+  /**
+   * Queues a request. The returned future completes once the chain has handled it, or exceptionally with an
+   * {@link IllegalStateException} if the scheduler was closed while the request was being queued. A
+   * {@link ReusableRequest} is copied first, as it is handled after this returns.
+   *
+   * @throws IllegalStateException if the scheduler is closed
+   */
+  public CompletableFuture<Void> submit(Request request) {
+    if(!running) {
+      throw new IllegalStateException("Scheduler is closed.");
+    }
+    final int type = request.getType().ordinal();
+    final Pending pending = new Pending(request.snapshot(), clockNanos.getAsLong(), new CompletableFuture<>());
+    queued.incrementAndGet(type);
+    queues.get(type).add(pending);
+    if(!running && queues.get(type).remove(pending)) {
+      // Closed concurrently, so the dispatching thread may already have stopped. If the request could not be
+      // removed, it has been taken for dispatch and will be handled.
+      queued.decrementAndGet(type);
+      pending.result().completeExceptionally(new IllegalStateException("Scheduler is closed."));
+      return pending.result();
+    }
+    final Thread thread = worker;
+    if(thread != null) {
+      LockSupport.unpark(thread);
+    }
+    return pending.result();
+  }
+
+  /**
+   * Dispatches the next request, if any, on the calling thread and returns whether one was dispatched.
+   */
+  public synchronized boolean runNext() {
+    final Pending next = next();
+    if(next == null) {
+      return false;
+    }
+    try {
+      chain.handleRequest(next.request());
+      next.result().complete(null);
+    } catch (RuntimeException e) {
+      log.warn("Failed to handle {} request.", next.request().getType(), e);
+      next.result().completeExceptionally(e);
+    }
+    return true;
+  }
+
+  public int getQueuedCount(RequestType type) {
+    return queued.get(type.ordinal());
+  }
+
+  /**
+   * Starts a thread that dispatches requests as they arrive.
+   */
+  public synchronized void start() {
+    if(worker != null || !running) {
+      throw new IllegalStateException("Scheduler is already started or closed.");
+    }
+    final Thread thread = new Thread(() -> {
+      while(running || hasQueued()) {
+        if(!runNext()) {
+          LockSupport.parkNanos(this, 1_000_000);
+        }
+      }
+    }, "support-scheduler");
+    thread.setDaemon(true);
+    worker = thread;
+    thread.start();
+  }
+
+  /**
+   * Stops accepting requests and waits for the started thread to dispatch the queued ones, or dispatches them on
+   * the calling thread if the scheduler was never started. If interrupted while waiting, returns with the interrupt
+   * flag set and the started thread carries on in the background.
+   */
+  @Override
+  public void close() {
+    running = false;
+    final Thread thread = worker;
+    if(thread == null) {
+      while(runNext()) {
+        // Drain on this thread.
+      }
+      return;
+    }
+    LockSupport.unpark(thread);
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private boolean hasQueued() {
+    for(int type = 0; type < TYPES.length; type++) {
+      if(queued.get(type) > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Pending next() {
+    final Pending aged = oldestAged();
+    if(aged != null) {
+      return aged;
+    }
+    for(int visited = 0; visited < TYPES.length; visited++) {
+      final Queue<Pending> queue = queues.get(current);
+      final Pending pending = queue.poll();
+      if(pending == null) {
+        remaining[current] = 0;
+        current = (current + 1) % TYPES.length;
+        continue;
+      }
+      queued.decrementAndGet(current);
+      if(remaining[current] == 0) {
+        remaining[current] = weights[current];
+      }
+      if(--remaining[current] == 0) {
+        current = (current + 1) % TYPES.length;
+      }
+      return pending;
+    }
+    return null;
+  }
+
+  /**
+   * The request that has waited longest, if it has waited at least the maximum wait.
+   */
+  private Pending oldestAged() {
+    final long now = clockNanos.getAsLong();
+    int oldest = -1;
+    Pending oldestHead = null;
+    for(int type = 0; type < TYPES.length; type++) {
+      final Pending head = queues.get(type).peek();
+      if(head != null && now - head.enqueued() >= maxWaitNanos
+         && (oldestHead == null || head.enqueued() - oldestHead.enqueued() < 0)) {
+        oldest = type;
+        oldestHead = head;
+      }
+    }
+    // A submit racing with close may have taken back its own request since the peek.
+    if(oldestHead == null || !queues.get(oldest).remove(oldestHead)) {
+      return null;
+    }
+    queued.decrementAndGet(oldest);
+    return oldestHead;
+  }
+}
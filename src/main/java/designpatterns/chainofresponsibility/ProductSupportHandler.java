@@ -7,12 +7,12 @@ public class ProductSupportHandler extends DefaultSupportHandler {
   private static final Logger log = LoggerFactory.getLogger(ProductSupportHandler.class);
 
   @Override
-  public void handleRequest(Request request) {
-    if(request.getType().equals(RequestType.PRODUCT)) {
-      log.info("Product support.");
-    }
-    else {
-      this.next.handleRequest(request);
-    }
+  public boolean canHandle(Request request) {
+    return request.getType().equals(RequestType.PRODUCT);
+  }
+
+  @Override
+  public void process(Request request) {
+    log.info("Product support.");
   }
 }
@@ -0,0 +1,55 @@
+package designpatterns.chainofresponsibility;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Chain stage that protects the handlers after it. Request types with a {@link TokenBucket} are passed on only
+ * while their bucket has tokens and are diverted to {@link NoSupportHandler} otherwise. Types without a bucket
+ * are never limited.
+ */
+public class RateLimitingSupportHandler extends DefaultSupportHandler {
+  private static final Logger log = LoggerFactory.getLogger(RateLimitingSupportHandler.class);
+
+  private final Map<RequestType, TokenBucket> buckets;
+  private final SupportHandler fallback = new NoSupportHandler();
+  private final LongAdder rejected = new LongAdder();
+
+  public RateLimitingSupportHandler(Map<RequestType, TokenBucket> buckets) {
+    this.buckets = buckets.isEmpty() ? new EnumMap<>(RequestType.class) : new EnumMap<>(buckets);
+  }
+
+  @Override
+  public void handleRequest(Request request) {
+    final TokenBucket bucket = buckets.get(request.getType());
+    if(bucket == null || bucket.tryAcquire()) {
+      this.next.handleRequest(request);
+    }
+    else {
+      process(request);
+    }
+  }
+
+  /**
+   * A rate limiter never handles requests itself.
+   */
+  @Override
+  public boolean canHandle(Request request) {
+    return false;
+  }
+
+  @Override
+  public void process(Request request) {
+    rejected.increment();
+    log.debug("Rate limit exceeded for {}.", request.getType());
+    fallback.process(request);
+  }
+
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+}
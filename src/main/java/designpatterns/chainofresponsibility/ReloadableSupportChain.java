@@ -0,0 +1,139 @@
+package designpatterns.chainofresponsibility;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+
+/**
+ * Support chain described by a config file listing one handler name per line ({@code #} starts a comment),
+ * see {@link SupportHandlerChain#createHandler(String)}.
+ * <p>
+ * The file is watched and every change builds a fresh chain from new handler instances, which is then published
+ * with a single volatile write. A published chain is never rewired, so requests already running finish on the
+ * chain they started on while new requests pick up the new one, without any locking on the dispatch path. Only
+ * reloads, from the watcher or {@link #reload()}, are serialized.
+ * A config that fails to load or lists no handler is logged and the current chain is kept.
+ */
+public class ReloadableSupportChain implements SupportHandler, AutoCloseable {
+  private static final Logger log = LoggerFactory.getLogger(ReloadableSupportChain.class);
+
+  private record Chain(List<String> names, SupportHandler head) {}
+
+  private final Path config;
+  private final WatchService watcher;
+  private final Thread watchThread;
+  private volatile Chain chain;
+
+  public ReloadableSupportChain(Path config) {
+    this.config = config.toAbsolutePath();
+    this.chain = load();
+    try {
+      this.watcher = FileSystems.getDefault().newWatchService();
+      this.config.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    this.watchThread = new Thread(this::watch, "support-chain-watcher");
+    this.watchThread.setDaemon(true);
+    this.watchThread.start();
+  }
+
+  /**
+   * Rebuilds the chain from the config file, returning whether a new chain was published. Reloads are serialized,
+   * so a load of an older version of the file can never be published over a newer one.
+   */
+  public synchronized boolean reload() {
+    try {
+      final Chain loaded = load();
+      chain = loaded;
+      log.info("Reloaded support chain {}.", loaded.names());
+      return true;
+    } catch (RuntimeException e) {
+      log.warn("Keeping current support chain, failed to load {}.", config, e);
+      return false;
+    }
+  }
+
+  public List<String> getHandlerNames() {
+    return chain.names();
+  }
+
+  @Override
+  public void handleRequest(Request request) {
+    chain.head().handleRequest(request);
+  }
+
+  @Override
+  public void nextHandler(SupportHandler handler) {
+    throw new UnsupportedOperationException("Reloadable chain is configured from " + config + ".");
+  }
+
+  /**
+   * Whether any handler of the current chain accepts the request.
+   */
+  @Override
+  public boolean canHandle(Request request) {
+    return chain.head().canChainHandle(request);
+  }
+
+  /**
+   * Dispatches the request through the whole current chain, as {@link #handleRequest(Request)} does.
+   */
+  @Override
+  public void process(Request request) {
+    chain.head().handleRequest(request);
+  }
+
+  @Override
+  public void close() throws IOException {
+    watcher.close();
+    watchThread.interrupt();
+  }
+
+  private Chain load() {
+    final List<String> names;
+    try {
+      names = Files.readAllLines(config).stream()
+                   .map(line -> line.replaceFirst("#.*", "").trim())
+                   .filter(line -> !line.isEmpty())
+                   .toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if(names.isEmpty()) {
+      // Most likely a partially written file, keep serving with the current chain.
+      throw new IllegalArgumentException("No support handlers configured in " + config + ".");
+    }
+    final List<SupportHandler> handlers = names.stream().map(SupportHandlerChain::createHandler).toList();
+    return new Chain(names, SupportHandlerChain.createChain(handlers));
+  }
+
+  private void watch() {
+    try {
+      while(true) {
+        final WatchKey key = watcher.take();
+        boolean changed = false;
+        for(WatchEvent<?> event : key.pollEvents()) {
+          changed |= config.getFileName().equals(event.context());
+        }
+        key.reset();
+        if(changed) {
+          reload();
+        }
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      // Closed.
+    }
+  }
+}
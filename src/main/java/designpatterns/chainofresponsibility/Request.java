@@ -16,4 +16,12 @@ public class Request {
   public String getQuery() {
     return query;
   }
+
+  /**
+   * A request with the same type and query that stays valid after the caller returns, for entry points that
+   * hand the request to other threads. Requests are immutable, so this is the request itself.
+   */
+  Request snapshot() {
+    return this;
+  }
 }
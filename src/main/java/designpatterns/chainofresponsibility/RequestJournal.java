@@ -0,0 +1,272 @@
+package designpatterns.chainofresponsibility;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped journal of requests going through a support chain.
+ * <p>
+ * Every request is recorded before it is dispatched and marked completed afterwards, so the requests that were
+ * in flight when the process stopped can be replayed on the next start. The journal is split into fixed-size
+ * segment files; a new segment is started whenever the current one is full and on every open, and segments
+ * holding no pending request are deleted during recovery. Records are forced to disk in batches.
+ * <p>
+ * Record layout: {@code kind:1 crc:4 id:8} followed, for dispatched records, by
+ * {@code type:1 length:4 query:length}. The CRC32C covers the kind and everything after the checksum. A zero kind
+ * marks the end of the written part of a segment. As records are forced in batches, a crash can leave the last
+ * records of a segment torn or only partly flushed; recovery treats the first record that fails validation as the
+ * end of its segment.
+ */
+public class RequestJournal implements Closeable {
+
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+  public static final int DEFAULT_SYNC_BATCH = 256;
+
+  private static final int MAGIC = 0x524a4e32;
+  private static final int HEADER_SIZE = Integer.BYTES;
+  private static final byte DISPATCHED = 1;
+  private static final byte COMPLETED = 2;
+  private static final int CHECKSUM_OFFSET = 1;
+  private static final int COMPLETED_SIZE = 1 + Integer.BYTES + Long.BYTES;
+  private static final int DISPATCHED_OVERHEAD = COMPLETED_SIZE + 1 + Integer.BYTES;
+  private static final String SEGMENT_PREFIX = "journal-";
+  private static final String SEGMENT_SUFFIX = ".log";
+
+  public record Entry(long id, Request request) {}
+
+  private final Path directory;
+  private final int segmentSize;
+  private final int syncBatch;
+  private final Map<Long, Request> recovered;
+
+  private MappedByteBuffer segment;
+  private int segmentIndex;
+  private long nextId;
+  private int unsynced;
+  private boolean closed;
+
+  public RequestJournal(Path directory) {
+    this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_SYNC_BATCH);
+  }
+
+  public RequestJournal(Path directory, int segmentSize, int syncBatch) {
+    if(segmentSize <= HEADER_SIZE + DISPATCHED_OVERHEAD) {
+      throw new IllegalArgumentException("Segment size is too small.");
+    }
+    if(syncBatch < 1) {
+      throw new IllegalArgumentException("Sync batch must be positive.");
+    }
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.syncBatch = syncBatch;
+    try {
+      Files.createDirectories(directory);
+      this.recovered = recover();
+      roll();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Records a request about to be dispatched and returns its journal id.
+   */
+  public synchronized long append(Request request) {
+    final byte[] query = request.getQuery() == null ? new byte[0] : request.getQuery().getBytes(StandardCharsets.UTF_8);
+    final int size = DISPATCHED_OVERHEAD + query.length;
+    if(size > segmentSize - HEADER_SIZE) {
+      throw new IllegalArgumentException("Request does not fit in a journal segment.");
+    }
+    ensureCapacity(size);
+    final long id = nextId++;
+    final int start = segment.position();
+    segment.put(DISPATCHED).putInt(0).putLong(id).put((byte) request.getType().ordinal()).putInt(query.length).put(query);
+    segment.putInt(start + CHECKSUM_OFFSET, checksum(segment, start, segment.position()));
+    written();
+    return id;
+  }
+
+  /**
+   * Records that the request with the given id was handled.
+   */
+  public synchronized void complete(long id) {
+    ensureCapacity(COMPLETED_SIZE);
+    final int start = segment.position();
+    segment.put(COMPLETED).putInt(0).putLong(id);
+    segment.putInt(start + CHECKSUM_OFFSET, checksum(segment, start, segment.position()));
+    recovered.remove(id);
+    written();
+  }
+
+  /**
+   * Requests that were dispatched but never completed before the journal was last closed, oldest first.
+   */
+  public synchronized List<Entry> pending() {
+    final List<Entry> entries = new ArrayList<>(recovered.size());
+    recovered.forEach((id, request) -> entries.add(new Entry(id, request)));
+    return entries;
+  }
+
+  public synchronized void sync() {
+    ensureOpen();
+    if(unsynced > 0) {
+      segment.force();
+      unsynced = 0;
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    if(!closed) {
+      sync();
+      closed = true;
+      segment = null;
+    }
+  }
+
+  private void written() {
+    if(++unsynced >= syncBatch) {
+      sync();
+    }
+  }
+
+  private void ensureCapacity(int size) {
+    ensureOpen();
+    // A zero kind byte must always follow the last record, so keep one spare byte.
+    if(segment.remaining() < size + 1) {
+      segment.force();
+      unsynced = 0;
+      try {
+        roll();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  private void ensureOpen() {
+    if(closed) {
+      throw new IllegalStateException("Journal is closed.");
+    }
+  }
+
+  private void roll() throws IOException {
+    segmentIndex++;
+    try (FileChannel channel = FileChannel.open(segmentPath(segmentIndex), StandardOpenOption.CREATE_NEW,
+                                                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+    segment.putInt(MAGIC);
+  }
+
+  private Map<Long, Request> recover() throws IOException {
+    final List<Path> segments = segments();
+    final Map<Long, Request> pending = new LinkedHashMap<>();
+    final List<Long> lastIds = new ArrayList<>(segments.size());
+    final RequestType[] types = RequestType.values();
+    long maxId = -1;
+
+    for(Path path : segments) {
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if(buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+          throw new IOException("Not a request journal segment: " + path);
+        }
+        long lastId = -1;
+        while(buffer.remaining() >= COMPLETED_SIZE) {
+          final int start = buffer.position();
+          final byte kind = buffer.get();
+          if(kind != DISPATCHED && kind != COMPLETED) {
+            break;
+          }
+          final int checksum = buffer.getInt();
+          final long id = buffer.getLong();
+          Request request = null;
+          if(kind == DISPATCHED) {
+            if(buffer.remaining() < 1 + Integer.BYTES) {
+              break;
+            }
+            final int ordinal = buffer.get();
+            final int length = buffer.getInt();
+            if(ordinal < 0 || ordinal >= types.length || length < 0 || length > buffer.remaining()) {
+              break;
+            }
+            final byte[] query = new byte[length];
+            buffer.get(query);
+            request = new Request(types[ordinal], new String(query, StandardCharsets.UTF_8));
+          }
+          if(checksum(buffer, start, buffer.position()) != checksum) {
+            break;
+          }
+          if(request != null) {
+            pending.put(id, request);
+            lastId = id;
+            maxId = Math.max(maxId, id);
+          }
+          else {
+            pending.remove(id);
+          }
+        }
+        lastIds.add(lastId);
+      }
+    }
+
+    // Completions always follow their dispatch, so a leading run of segments without pending requests
+    // can never be needed again.
+    final long oldestPending = pending.isEmpty() ? Long.MAX_VALUE : pending.keySet().iterator().next();
+    for(int i = 0; i < segments.size(); i++) {
+      if(lastIds.get(i) >= oldestPending) {
+        break;
+      }
+      Files.delete(segments.get(i));
+    }
+
+    nextId = maxId + 1;
+    segmentIndex = segments.isEmpty() ? 0 : index(segments.get(segments.size() - 1));
+    return pending;
+  }
+
+  private List<Path> segments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(path -> {
+                    final String name = path.getFileName().toString();
+                    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                  })
+                  .sorted((a, b) -> Integer.compare(index(a), index(b)))
+                  .toList();
+    }
+  }
+
+  /**
+   * CRC32C of the record between {@code start} and {@code end}, skipping its checksum field.
+   */
+  private static int checksum(MappedByteBuffer buffer, int start, int end) {
+    final CRC32C crc = new CRC32C();
+    crc.update(buffer.get(start));
+    final int from = start + CHECKSUM_OFFSET + Integer.BYTES;
+    crc.update(buffer.slice(from, end - from));
+    return (int) crc.getValue();
+  }
+
+  private Path segmentPath(int index) {
+    return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+  }
+
+  private static int index(Path segment) {
+    final String name = segment.getFileName().toString();
+    return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+  }
+}
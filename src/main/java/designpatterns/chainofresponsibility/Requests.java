@@ -0,0 +1,75 @@
+package designpatterns.chainofresponsibility;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Flyweight factory for {@link Request}. Recurring (type, query) pairs share a single immutable instance,
+ * so steady-state traffic from a small query vocabulary does not allocate.
+ */
+public class Requests {
+
+  public static final int DEFAULT_CAPACITY = 4096;
+
+  private static final Requests SHARED = new Requests(DEFAULT_CAPACITY);
+
+  private final Map<RequestType, Map<String, Request>> pool = new EnumMap<>(RequestType.class);
+  // Slots taken per type, reserved before inserting so concurrent misses cannot grow a pool past its capacity.
+  private final AtomicIntegerArray reserved = new AtomicIntegerArray(RequestType.values().length);
+  private final int capacityPerType;
+
+  public Requests(int capacityPerType) {
+    if(capacityPerType < 0) {
+      throw new IllegalArgumentException("Capacity must not be negative.");
+    }
+    this.capacityPerType = capacityPerType;
+    for(RequestType type : RequestType.values()) {
+      pool.put(type, new ConcurrentHashMap<>());
+    }
+  }
+
+  public static Request of(RequestType type, String query) {
+    return SHARED.get(type, query);
+  }
+
+  /**
+   * Returns the pooled request for the given pair. Once a type's pool is full, new queries are no longer
+   * interned and a fresh request is returned, so an unbounded vocabulary cannot grow the pool forever.
+   * A null query is allowed, as for {@link Request}, but never pooled.
+   */
+  public Request get(RequestType type, String query) {
+    if(query == null) {
+      return new Request(type, null);
+    }
+    final Map<String, Request> requests = pool.get(type);
+    final Request pooled = requests.get(query);
+    if(pooled != null) {
+      return pooled;
+    }
+    final int slot = type.ordinal();
+    if(reserved.incrementAndGet(slot) > capacityPerType) {
+      reserved.decrementAndGet(slot);
+      return new Request(type, query);
+    }
+    final Request created = new Request(type, query);
+    final Request raced = requests.putIfAbsent(query, created);
+    if(raced != null) {
+      reserved.decrementAndGet(slot);
+      return raced;
+    }
+    return created;
+  }
+
+  public int size(RequestType type) {
+    return pool.get(type).size();
+  }
+
+  /**
+   * Creates a mutable request meant to be reused by a single-threaded ingest loop.
+   */
+  public static ReusableRequest reusable() {
+    return new ReusableRequest();
+  }
+}
@@ -0,0 +1,37 @@
+package designpatterns.chainofresponsibility;
+
+/**
+ * Mutable {@link Request} for single-threaded ingest loops: one instance is reset and dispatched per message.
+ * Not thread safe, and handlers must not keep a reference to it after {@code handleRequest} returns. The
+ * asynchronous entry points ({@link ShardedSupportExecutor#submit}, {@link PrioritySupportScheduler#submit} and
+ * {@link BroadcastSupportDispatcher#dispatch}) take a copy, so passing one to them costs an allocation.
+ */
+public class ReusableRequest extends Request {
+  private RequestType type;
+  private String query;
+
+  ReusableRequest() {
+    super(null, null);
+  }
+
+  public ReusableRequest reset(RequestType type, String query) {
+    this.type = type;
+    this.query = query;
+    return this;
+  }
+
+  @Override
+  public RequestType getType() {
+    return type;
+  }
+
+  @Override
+  public String getQuery() {
+    return query;
+  }
+
+  @Override
+  Request snapshot() {
+    return new Request(type, query);
+  }
+}
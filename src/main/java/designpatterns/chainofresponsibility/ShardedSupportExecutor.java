@@ -0,0 +1,71 @@
+package designpatterns.chainofresponsibility;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs requests on a fixed number of shards, each being a single thread with its own chain of freshly created
+ * handlers. Handlers are never shared between shards, so any state they keep is confined to one thread, and
+ * requests with the same type and query always land on the same shard and are handled in submission order.
+ */
+public class ShardedSupportExecutor implements AutoCloseable {
+
+  private final SupportHandler[] chains;
+  private final ExecutorService[] shards;
+
+  public ShardedSupportExecutor(List<Supplier<? extends SupportHandler>> handlers) {
+    this(handlers, Runtime.getRuntime().availableProcessors());
+  }
+
+  public ShardedSupportExecutor(List<Supplier<? extends SupportHandler>> handlers, int shardCount) {
+    if(shardCount < 1) {
+      throw new IllegalArgumentException("Shard count must be positive.");
+    }
+    this.chains = new SupportHandler[shardCount];
+    this.shards = new ExecutorService[shardCount];
+    for(int i = 0; i < shardCount; i++) {
+      final List<SupportHandler> chain = handlers.stream().<SupportHandler>map(Supplier::get).toList();
+      final String name = "support-shard-" + i;
+      chains[i] = SupportHandlerChain.createChain(chain);
+      shards[i] = Executors.newSingleThreadExecutor(task -> new Thread(task, name));
+    }
+  }
+
+  /**
+   * Queues the request on its shard. A {@link ReusableRequest} is copied first, as it is handled after this returns.
+   */
+  public CompletableFuture<Void> submit(Request request) {
+    final Request submitted = request.snapshot();
+    final int shard = shardFor(submitted);
+    final SupportHandler chain = chains[shard];
+    return CompletableFuture.runAsync(() -> chain.handleRequest(submitted), shards[shard]);
+  }
+
+  public int shardFor(Request request) {
+    // Combined by hand, as Objects.hash would allocate a varargs array per request.
+    final int hash = 31 * Objects.hashCode(request.getType()) + Objects.hashCode(request.getQuery());
+    return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+  }
+
+  public int shardCount() {
+    return shards.length;
+  }
+
+  /**
+   * Stops accepting requests and waits for the queued ones to be handled.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    for(ExecutorService shard : shards) {
+      shard.shutdown();
+    }
+    for(ExecutorService shard : shards) {
+      shard.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+  }
+}
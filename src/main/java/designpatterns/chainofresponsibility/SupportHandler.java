@@ -3,4 +3,13 @@ package designpatterns.chainofresponsibility;
 public interface SupportHandler {
   void handleRequest(Request request);
   void nextHandler(SupportHandler handler);
+  boolean canHandle(Request request);
+  void process(Request request);
+
+  /**
+   * Whether this handler or any handler after it in the chain accepts the request.
+   */
+  default boolean canChainHandle(Request request) {
+    return canHandle(request);
+  }
 }
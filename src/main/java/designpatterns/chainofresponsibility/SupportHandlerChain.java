@@ -1,19 +1,41 @@
 package designpatterns.chainofresponsibility;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
 
 public class SupportHandlerChain {
 
+  private static final Map<String, Supplier<SupportHandler>> HANDLERS = Map.of(
+    "billing", BillingSupportHandler::new,
+    "product", ProductSupportHandler::new,
+    "technical", TechnicalSupportHandler::new,
+    "general", GeneralSupportHandler::new
+  );
+
   private SupportHandlerChain() {}
 
+  /**
+   * Creates a new handler from its name ({@code billing}, {@code product}, {@code technical} or {@code general}).
+   */
+  public static SupportHandler createHandler(String name) {
+    final Supplier<SupportHandler> handler = HANDLERS.get(name.trim().toLowerCase(Locale.ROOT));
+    if(handler == null) {
+      throw new IllegalArgumentException("Unknown support handler '" + name + "'.");
+    }
+    return handler.get();
+  }
+
   public static SupportHandler createChain(List<SupportHandler> handlers) {
-    final SupportHandler chain = handlers.stream().reduce((prev, current) -> {
-                                    prev.nextHandler(current);
-                                    return current;
-                                  }).orElse(new NoSupportHandler());
-    if(!(chain instanceof NoSupportHandler)) {
-      chain.nextHandler(new NoSupportHandler());
+    if(handlers.isEmpty()) {
+      return new NoSupportHandler();
     }
+    final SupportHandler last = handlers.stream().reduce((prev, current) -> {
+                                   prev.nextHandler(current);
+                                   return current;
+                                 }).orElseThrow();
+    last.nextHandler(new NoSupportHandler());
     return handlers.get(0);
   }
 
@@ -7,12 +7,12 @@ public class TechnicalSupportHandler extends DefaultSupportHandler {
   private static final Logger log = LoggerFactory.getLogger(TechnicalSupportHandler.class);
 
   @Override
-  public void handleRequest(Request request) {
-    if(request.getType().equals(RequestType.TECHNICAL)) {
-      log.info("Technical support.");
-    }
-    else {
-      this.next.handleRequest(request);
-    }
+  public boolean canHandle(Request request) {
+    return request.getType().equals(RequestType.TECHNICAL);
+  }
+
+  @Override
+  public void process(Request request) {
+    log.info("Technical support.");
   }
 }
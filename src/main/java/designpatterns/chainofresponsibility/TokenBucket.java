@@ -0,0 +1,97 @@
+package designpatterns.chainofresponsibility;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket. The available tokens and the time of the last refill are packed into a single
+ * {@code long} so that refilling and taking a token is one compare-and-set.
+ * <p>
+ * Layout: the upper {@value #TOKEN_BITS} bits hold the tokens, the lower {@value #TIME_BITS} bits hold the
+ * milliseconds elapsed since the bucket was created. A time before the stored refill time, as read by a thread that
+ * sampled the clock before another thread refilled, counts as no time elapsed.
+ * <p>
+ * Token {@code n} becomes due at {@code n * 1000 / rate} ms after creation, and a refill credits the tokens that
+ * became due since the previous one. Refills therefore add up to exactly {@code rate * t / 1000} tokens whatever the
+ * rate, with no fraction of a token lost or credited twice.
+ */
+public class TokenBucket {
+
+  static final int TOKEN_BITS = 24;
+  static final int TIME_BITS = Long.SIZE - TOKEN_BITS;
+  static final long MAX_TOKENS = (1L << TOKEN_BITS) - 1;
+  private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+  private static final long TIME_SIGN = 1L << (TIME_BITS - 1);
+
+  private final long capacity;
+  private final long tokensPerSecond;
+  private final long fillMillis;
+  private final LongSupplier clock;
+  private final long origin;
+  private final AtomicLong state;
+
+  public TokenBucket(long capacity, long tokensPerSecond) {
+    this(capacity, tokensPerSecond, () -> System.nanoTime() / 1_000_000);
+  }
+
+  /**
+   * @param clock source of the current time in milliseconds
+   */
+  public TokenBucket(long capacity, long tokensPerSecond, LongSupplier clock) {
+    if(capacity < 1 || capacity > MAX_TOKENS) {
+      throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_TOKENS + ".");
+    }
+    if(tokensPerSecond < 1 || tokensPerSecond > MAX_TOKENS * 1000) {
+      throw new IllegalArgumentException("Refill rate must be between 1 and " + MAX_TOKENS * 1000 + " per second.");
+    }
+    this.capacity = capacity;
+    this.tokensPerSecond = tokensPerSecond;
+    this.fillMillis = (capacity * 1000 + tokensPerSecond - 1) / tokensPerSecond;
+    this.clock = clock;
+    this.origin = clock.getAsLong();
+    this.state = new AtomicLong(pack(capacity, 0));
+  }
+
+  public boolean tryAcquire() {
+    while(true) {
+      final long current = state.get();
+      final long now = (clock.getAsLong() - origin) & TIME_MASK;
+      long tokens = current >>> TIME_BITS;
+      long refilled = current & TIME_MASK;
+      final long difference = (now - refilled) & TIME_MASK;
+      final long elapsed = (difference & TIME_SIGN) != 0 ? 0 : difference;
+      // Past the time to fill an empty bucket the product could overflow, and the bucket is full anyway.
+      final long added = elapsed >= fillMillis ? capacity : due(refilled, elapsed);
+      if(added > 0) {
+        tokens = Math.min(tokens + added, capacity);
+        refilled = now;
+      }
+      if(tokens == 0) {
+        if(added > 0 && !state.compareAndSet(current, pack(0, refilled))) {
+          continue;
+        }
+        return false;
+      }
+      if(state.compareAndSet(current, pack(tokens - 1, refilled))) {
+        return true;
+      }
+    }
+  }
+
+  public long availableTokens() {
+    return state.get() >>> TIME_BITS;
+  }
+
+  /**
+   * Tokens that became due between {@code refilled} and {@code elapsed} ms later. Whole seconds contribute the same
+   * number of tokens to both ends, so only the millisecond within the second is needed and the product stays small.
+   */
+  private long due(long refilled, long elapsed) {
+    final long millis = refilled % 1000;
+    return (millis + elapsed) * tokensPerSecond / 1000 - millis * tokensPerSecond / 1000;
+  }
+
+  private static long pack(long tokens, long time) {
+    return (tokens << TIME_BITS) | time;
+  }
+}
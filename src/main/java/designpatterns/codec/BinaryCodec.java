@@ -0,0 +1,132 @@
+package designpatterns.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Primitive encodings shared by the record codecs: unsigned and zig-zag varints and length-prefixed UTF-8
+ * strings, written straight into and read straight out of a {@link ByteBuffer}.
+ */
+public class BinaryCodec {
+
+  private BinaryCodec() {}
+
+  public static void putVarInt(ByteBuffer buffer, int value) {
+    while((value & ~0x7f) != 0) {
+      buffer.put((byte) ((value & 0x7f) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  public static int getVarInt(ByteBuffer buffer) {
+    int value = 0;
+    for(int shift = 0; shift < 35; shift += 7) {
+      final byte b = buffer.get();
+      value |= (b & 0x7f) << shift;
+      if(b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed varint.");
+  }
+
+  public static void putSignedVarInt(ByteBuffer buffer, int value) {
+    putVarInt(buffer, (value << 1) ^ (value >> 31));
+  }
+
+  public static int getSignedVarInt(ByteBuffer buffer) {
+    final int value = getVarInt(buffer);
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  public static int varIntSize(int value) {
+    return value == 0 ? 1 : (38 - Integer.numberOfLeadingZeros(value)) / 7;
+  }
+
+  public static int signedVarIntSize(int value) {
+    return varIntSize((value << 1) ^ (value >> 31));
+  }
+
+  /**
+   * Writes the string as a varint byte length followed by its UTF-8 bytes, encoding character by character
+   * so no intermediate byte array is created.
+   */
+  public static void putString(ByteBuffer buffer, String value) {
+    putVarInt(buffer, utf8Length(value));
+    final int length = value.length();
+    for(int i = 0; i < length; i++) {
+      final char c = value.charAt(i);
+      if(c < 0x80) {
+        buffer.put((byte) c);
+      }
+      else if(c < 0x800) {
+        buffer.put((byte) (0xc0 | (c >>> 6)));
+        buffer.put((byte) (0x80 | (c & 0x3f)));
+      }
+      else if(Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+        final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+        buffer.put((byte) (0xf0 | (codePoint >>> 18)));
+        buffer.put((byte) (0x80 | ((codePoint >>> 12) & 0x3f)));
+        buffer.put((byte) (0x80 | ((codePoint >>> 6) & 0x3f)));
+        buffer.put((byte) (0x80 | (codePoint & 0x3f)));
+      }
+      else if(Character.isSurrogate(c)) {
+        buffer.put((byte) '?');
+      }
+      else {
+        buffer.put((byte) (0xe0 | (c >>> 12)));
+        buffer.put((byte) (0x80 | ((c >>> 6) & 0x3f)));
+        buffer.put((byte) (0x80 | (c & 0x3f)));
+      }
+    }
+  }
+
+  public static String getString(ByteBuffer buffer) {
+    final int length = getVarInt(buffer);
+    if(length > buffer.remaining()) {
+      throw new IllegalArgumentException("String length exceeds the remaining bytes.");
+    }
+    final String value;
+    if(buffer.hasArray()) {
+      value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+      buffer.position(buffer.position() + length);
+    }
+    else {
+      final byte[] bytes = new byte[length];
+      buffer.get(bytes);
+      value = new String(bytes, StandardCharsets.UTF_8);
+    }
+    return value;
+  }
+
+  public static int stringSize(String value) {
+    final int length = utf8Length(value);
+    return varIntSize(length) + length;
+  }
+
+  /**
+   * Number of bytes {@link #putString(ByteBuffer, String)} writes for the characters of the string. Unpaired
+   * surrogates are written as {@code '?'}, the same as {@link StandardCharsets#UTF_8} does.
+   */
+  public static int utf8Length(String value) {
+    final int length = value.length();
+    int size = length;
+    for(int i = 0; i < length; i++) {
+      final char c = value.charAt(i);
+      if(c >= 0x800) {
+        if(Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+          size += 2;
+          i++;
+        }
+        else if(!Character.isSurrogate(c)) {
+          size += 2;
+        }
+      }
+      else if(c >= 0x80) {
+        size++;
+      }
+    }
+    return size;
+  }
+}
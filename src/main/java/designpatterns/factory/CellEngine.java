@@ -0,0 +1,362 @@
+package designpatterns.factory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Numeric content model of a {@link SpreadSheet}.
+ * <p>
+ * Values are stored per column in primitive {@code double[]} or {@code long[]} arrays, so cells are never boxed.
+ * A cell is addressed by its id, {@code column * rows + row}. Formula cells declare the cells they read; changes
+ * are collected until {@link #recalculate()}, which recomputes only the formulas downstream of a change, in
+ * dependency order, and evaluates independent groups of affected formulas in parallel.
+ */
+public class CellEngine {
+
+  public enum ColumnType {
+    DOUBLE, LONG
+  }
+
+  @FunctionalInterface
+  public interface Formula {
+    double evaluate(CellEngine cells);
+  }
+
+  /** Affected formulas are recalculated in parallel only above this many. */
+  static final int PARALLEL_THRESHOLD = 4096;
+
+  private static final int[] NONE = new int[0];
+
+  private final int rows;
+  private final int columns;
+  private final double[][] doubles;
+  private final long[][] longs;
+  private final Formula[] formulas;
+  private final int[][] inputs;
+  private final int[][] dependents;
+  private final int[] dependentCount;
+  private final BitSet changed = new BitSet();
+  private int[] scratch;
+
+  public CellEngine(int rows, int columns) {
+    this(rows, filled(columns));
+  }
+
+  public CellEngine(int rows, ColumnType... types) {
+    if(rows < 1 || types.length < 1 || (long) rows * types.length > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Invalid sheet size " + rows + "x" + types.length + ".");
+    }
+    this.rows = rows;
+    this.columns = types.length;
+    this.doubles = new double[columns][];
+    this.longs = new long[columns][];
+    for(int column = 0; column < columns; column++) {
+      if(types[column] == ColumnType.LONG) {
+        longs[column] = new long[rows];
+      }
+      else {
+        doubles[column] = new double[rows];
+      }
+    }
+    final int cells = rows * columns;
+    this.formulas = new Formula[cells];
+    this.inputs = new int[cells][];
+    this.dependents = new int[cells][];
+    this.dependentCount = new int[cells];
+  }
+
+  public int getRows() {
+    return rows;
+  }
+
+  public int getColumns() {
+    return columns;
+  }
+
+  public int cell(int row, int column) {
+    if(row < 0 || row >= rows || column < 0 || column >= columns) {
+      throw new IndexOutOfBoundsException("Cell (" + row + ", " + column + ") outside " + rows + "x" + columns + ".");
+    }
+    return column * rows + row;
+  }
+
+  public double get(int cell) {
+    final int column = cell / rows;
+    final double[] values = doubles[column];
+    return values != null ? values[cell % rows] : longs[column][cell % rows];
+  }
+
+  public long getLong(int cell) {
+    final int column = cell / rows;
+    final long[] values = longs[column];
+    return values != null ? values[cell % rows] : (long) doubles[column][cell % rows];
+  }
+
+  /**
+   * Sets a constant value, replacing any formula in the cell. Dependent formulas are updated by the next
+   * {@link #recalculate()}.
+   */
+  public synchronized void set(int cell, double value) {
+    removeFormula(cell);
+    store(cell, value);
+    changed.set(cell);
+  }
+
+  public synchronized void setLong(int cell, long value) {
+    removeFormula(cell);
+    final int column = cell / rows;
+    if(longs[column] != null) {
+      longs[column][cell % rows] = value;
+    }
+    else {
+      doubles[column][cell % rows] = value;
+    }
+    changed.set(cell);
+  }
+
+  /**
+   * Puts a formula reading the given cells into a cell. The formula must only read its declared inputs.
+   *
+   * @throws IllegalArgumentException if the formula would make the cell depend on itself
+   */
+  public synchronized void setFormula(int cell, Formula formula, int... reads) {
+    for(int input : reads) {
+      if(input == cell || dependsOn(input, cell)) {
+        throw new IllegalArgumentException("Formula in cell " + cell + " would create a cycle through cell " + input + ".");
+      }
+    }
+    removeFormula(cell);
+    final int[] declared = Arrays.stream(reads).distinct().toArray();
+    formulas[cell] = formula;
+    inputs[cell] = declared;
+    for(int input : declared) {
+      addDependent(input, cell);
+    }
+    changed.set(cell);
+  }
+
+  public boolean isFormula(int cell) {
+    return formulas[cell] != null;
+  }
+
+  /**
+   * Recomputes every formula affected by the changes since the last call and returns how many were evaluated.
+   */
+  public synchronized int recalculate() {
+    if(changed.isEmpty()) {
+      return 0;
+    }
+    final BitSet affected = affected();
+    changed.clear();
+    if(scratch == null) {
+      scratch = new int[formulas.length];
+    }
+    final int count = affected.cardinality();
+    if(count == 0) {
+      return 0;
+    }
+    final List<int[]> groups = count >= PARALLEL_THRESHOLD ? groups(affected) : List.of(affected.stream().toArray());
+    if(groups.size() > 1) {
+      groups.parallelStream().forEach(group -> evaluate(group, affected));
+    }
+    else {
+      evaluate(groups.get(0), affected);
+    }
+    return count;
+  }
+
+  /**
+   * A sum formula over the given cells, for use with {@link #setFormula(int, Formula, int...)}.
+   */
+  public static Formula sum(int... cells) {
+    final int[] reads = cells.clone();
+    return sheet -> {
+      double total = 0;
+      for(int cell : reads) {
+        total += sheet.get(cell);
+      }
+      return total;
+    };
+  }
+
+  /**
+   * Formula cells downstream of the changed cells, including changed formula cells themselves.
+   */
+  private BitSet affected() {
+    final BitSet affected = new BitSet();
+    int[] queue = changed.stream().toArray();
+    int head = 0;
+    int tail = queue.length;
+    for(int cell : queue) {
+      if(formulas[cell] != null) {
+        affected.set(cell);
+      }
+    }
+    while(head < tail) {
+      final int cell = queue[head++];
+      final int[] next = dependents[cell];
+      for(int i = 0; i < dependentCount[cell]; i++) {
+        if(!affected.get(next[i])) {
+          affected.set(next[i]);
+          if(tail == queue.length) {
+            queue = Arrays.copyOf(queue, queue.length * 2 + 1);
+          }
+          queue[tail++] = next[i];
+        }
+      }
+    }
+    return affected;
+  }
+
+  /**
+   * Splits the affected formulas into groups that share no affected cell, so they can be evaluated independently.
+   */
+  private List<int[]> groups(BitSet affected) {
+    final int[] parent = scratch;
+    for(int cell = affected.nextSetBit(0); cell >= 0; cell = affected.nextSetBit(cell + 1)) {
+      parent[cell] = cell;
+    }
+    for(int cell = affected.nextSetBit(0); cell >= 0; cell = affected.nextSetBit(cell + 1)) {
+      for(int input : inputs[cell]) {
+        if(affected.get(input)) {
+          parent[find(parent, cell)] = find(parent, input);
+        }
+      }
+    }
+    // Each group is collected as {size, cells...}.
+    final Map<Integer, int[]> members = new HashMap<>();
+    for(int cell = affected.nextSetBit(0); cell >= 0; cell = affected.nextSetBit(cell + 1)) {
+      final int root = find(parent, cell);
+      int[] group = members.computeIfAbsent(root, ignored -> new int[8]);
+      if(group[0] + 1 == group.length) {
+        group = Arrays.copyOf(group, group.length * 2);
+        members.put(root, group);
+      }
+      group[++group[0]] = cell;
+    }
+    final List<int[]> groups = new ArrayList<>(members.size());
+    for(int[] group : members.values()) {
+      groups.add(Arrays.copyOfRange(group, 1, group[0] + 1));
+    }
+    return groups;
+  }
+
+  /**
+   * Evaluates a group of affected formulas in dependency order (Kahn's algorithm restricted to the group).
+   * Groups never share an affected cell, so concurrent groups use disjoint slots of the scratch array.
+   */
+  private void evaluate(int[] group, BitSet affected) {
+    final int[] pending = scratch;
+    for(int cell : group) {
+      int count = 0;
+      for(int input : inputs[cell]) {
+        if(affected.get(input)) {
+          count++;
+        }
+      }
+      pending[cell] = count;
+    }
+    final int[] ready = new int[group.length];
+    int head = 0;
+    int tail = 0;
+    for(int cell : group) {
+      if(pending[cell] == 0) {
+        ready[tail++] = cell;
+      }
+    }
+    while(head < tail) {
+      final int cell = ready[head++];
+      store(cell, formulas[cell].evaluate(this));
+      final int[] next = dependents[cell];
+      for(int i = 0; i < dependentCount[cell]; i++) {
+        if(affected.get(next[i]) && --pending[next[i]] == 0) {
+          ready[tail++] = next[i];
+        }
+      }
+    }
+  }
+
+  private void store(int cell, double value) {
+    final int column = cell / rows;
+    if(doubles[column] != null) {
+      doubles[column][cell % rows] = value;
+    }
+    else {
+      longs[column][cell % rows] = Math.round(value);
+    }
+  }
+
+  private void removeFormula(int cell) {
+    if(formulas[cell] == null) {
+      return;
+    }
+    for(int input : inputs[cell]) {
+      final int[] list = dependents[input];
+      final int count = dependentCount[input];
+      for(int i = 0; i < count; i++) {
+        if(list[i] == cell) {
+          list[i] = list[count - 1];
+          dependentCount[input] = count - 1;
+          break;
+        }
+      }
+    }
+    formulas[cell] = null;
+    inputs[cell] = null;
+  }
+
+  private void addDependent(int input, int cell) {
+    int[] list = dependents[input];
+    if(list == null) {
+      list = dependents[input] = new int[2];
+    }
+    else if(dependentCount[input] == list.length) {
+      list = dependents[input] = Arrays.copyOf(list, list.length * 2);
+    }
+    list[dependentCount[input]++] = cell;
+  }
+
+  /**
+   * Whether {@code cell} reads {@code target}, directly or through other formulas.
+   */
+  private boolean dependsOn(int cell, int target) {
+    if(formulas[cell] == null) {
+      return false;
+    }
+    final BitSet visited = new BitSet();
+    final ArrayDeque<Integer> queue = new ArrayDeque<>();
+    queue.add(cell);
+    while(!queue.isEmpty()) {
+      final int current = queue.poll();
+      for(int input : inputs[current] == null ? NONE : inputs[current]) {
+        if(input == target) {
+          return true;
+        }
+        if(!visited.get(input)) {
+          visited.set(input);
+          queue.add(input);
+        }
+      }
+    }
+    return false;
+  }
+
+  private static int find(int[] parent, int cell) {
+    while(parent[cell] != cell) {
+      parent[cell] = parent[parent[cell]];
+      cell = parent[cell];
+    }
+    return cell;
+  }
+
+  private static ColumnType[] filled(int columns) {
+    final ColumnType[] types = new ColumnType[Math.max(columns, 0)];
+    Arrays.fill(types, ColumnType.DOUBLE);
+    return types;
+  }
+}
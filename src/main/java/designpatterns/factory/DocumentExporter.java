@@ -0,0 +1,312 @@
+package designpatterns.factory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Streams {@link Exportable} documents to CSV, JSON or HTML files.
+ * <p>
+ * Rows are escaped into a reusable char buffer, encoded to UTF-8 into a reusable direct {@link ByteBuffer} and
+ * written to a {@link FileChannel} whenever the buffer fills, so memory use does not depend on the size of the
+ * output. An exporter writes one document at a time; {@link #exportAll(Map, ExportFormat, Executor)} exports
+ * many documents in parallel with one exporter per running task.
+ * <p>
+ * CSV output has a header row and quotes fields containing commas, quotes or line breaks. JSON output is an
+ * array with one object per row, keyed by column. HTML output is a single table.
+ */
+public class DocumentExporter {
+  private static final Logger log = LoggerFactory.getLogger(DocumentExporter.class);
+
+  public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+  private final ByteBuffer bytes;
+  private final CharBuffer chars;
+  private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                                                               .onMalformedInput(CodingErrorAction.REPLACE)
+                                                               .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+  private FileChannel channel;
+  private List<String> columns;
+  private ExportFormat format;
+  private long rows;
+  private long written;
+
+  public DocumentExporter() {
+    this(DEFAULT_BUFFER_SIZE);
+  }
+
+  public DocumentExporter(int bufferSize) {
+    if(bufferSize < 16) {
+      throw new IllegalArgumentException("Buffer size must be at least 16 bytes, got " + bufferSize + ".");
+    }
+    this.bytes = ByteBuffer.allocateDirect(bufferSize);
+    this.chars = CharBuffer.allocate(bufferSize);
+  }
+
+  /**
+   * Writes the document to the target file, replacing its content, and returns the number of bytes written.
+   *
+   * @throws IllegalArgumentException if a row does not have one value per column
+   */
+  public synchronized long export(Exportable document, ExportFormat format, Path target) {
+    try (FileChannel output = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                               StandardOpenOption.TRUNCATE_EXISTING)) {
+      begin(output, document.columns(), format);
+      document.forEachRow(this::row);
+      end();
+      log.debug("Exported {} rows as {} to {}, {} bytes.", rows, format, target, written);
+      return written;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      channel = null;
+      columns = null;
+    }
+  }
+
+  /**
+   * Exports each document to its target file on the executor. The returned future completes with the total
+   * number of bytes written, or exceptionally if any export failed.
+   */
+  public static CompletableFuture<Long> exportAll(Map<Path, ? extends Exportable> documents, ExportFormat format,
+                                                  Executor executor) {
+    final Queue<DocumentExporter> idle = new ConcurrentLinkedQueue<>();
+    final List<CompletableFuture<Long>> exports = new ArrayList<>(documents.size());
+    documents.forEach((target, document) -> exports.add(CompletableFuture.supplyAsync(() -> {
+      final DocumentExporter available = idle.poll();
+      final DocumentExporter exporter = available != null ? available : new DocumentExporter();
+      try {
+        return exporter.export(document, format, target);
+      } finally {
+        idle.offer(exporter);
+      }
+    }, executor)));
+    return CompletableFuture.allOf(exports.toArray(CompletableFuture[]::new))
+                            .thenApply(ignored -> exports.stream().mapToLong(CompletableFuture::join).sum());
+  }
+
+  private void begin(FileChannel output, List<String> columns, ExportFormat format) {
+    this.channel = output;
+    this.columns = columns;
+    this.format = format;
+    this.rows = 0;
+    this.written = 0;
+    bytes.clear();
+    chars.clear();
+    encoder.reset();
+    switch (format) {
+      case CSV -> {
+        for(int i = 0; i < columns.size(); i++) {
+          if(i > 0) {
+            append(',');
+          }
+          csv(columns.get(i));
+        }
+        append('\n');
+      }
+      case JSON -> append('[');
+      case HTML -> {
+        append("<table>\n<thead><tr>");
+        for(String column : columns) {
+          append("<th>");
+          html(column);
+          append("</th>");
+        }
+        append("</tr></thead>\n<tbody>\n");
+      }
+    }
+  }
+
+  private void row(String[] values) {
+    if(values.length != columns.size()) {
+      throw new IllegalArgumentException("Row has " + values.length + " values for " + columns.size() + " columns.");
+    }
+    switch (format) {
+      case CSV -> {
+        for(int i = 0; i < values.length; i++) {
+          if(i > 0) {
+            append(',');
+          }
+          csv(values[i]);
+        }
+        append('\n');
+      }
+      case JSON -> {
+        append(rows == 0 ? "\n{" : ",\n{");
+        for(int i = 0; i < values.length; i++) {
+          if(i > 0) {
+            append(',');
+          }
+          json(columns.get(i));
+          append(':');
+          json(values[i]);
+        }
+        append('}');
+      }
+      case HTML -> {
+        append("<tr>");
+        for(String value : values) {
+          append("<td>");
+          html(value);
+          append("</td>");
+        }
+        append("</tr>\n");
+      }
+    }
+    rows++;
+  }
+
+  private void end() throws IOException {
+    switch (format) {
+      case CSV -> {}
+      case JSON -> append(rows == 0 ? "]\n" : "\n]\n");
+      case HTML -> append("</tbody>\n</table>\n");
+    }
+    encode(true);
+    while(encoder.flush(bytes).isOverflow()) {
+      drain();
+    }
+    drain();
+  }
+
+  private void csv(String value) {
+    if(value == null) {
+      return;
+    }
+    boolean quote = false;
+    for(int i = 0; i < value.length() && !quote; i++) {
+      final char c = value.charAt(i);
+      quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    if(!quote) {
+      append(value);
+      return;
+    }
+    append('"');
+    for(int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if(c == '"') {
+        append('"');
+      }
+      append(c);
+    }
+    append('"');
+  }
+
+  private void json(String value) {
+    if(value == null) {
+      append("null");
+      return;
+    }
+    append('"');
+    for(int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      switch (c) {
+        case '"' -> append("\\\"");
+        case '\\' -> append("\\\\");
+        case '\n' -> append("\\n");
+        case '\r' -> append("\\r");
+        case '\t' -> append("\\t");
+        default -> {
+          if(c < 0x20) {
+            append("\\u00");
+            append(Character.forDigit(c >> 4, 16));
+            append(Character.forDigit(c & 0xF, 16));
+          }
+          else {
+            append(c);
+          }
+        }
+      }
+    }
+    append('"');
+  }
+
+  private void html(String value) {
+    if(value == null) {
+      return;
+    }
+    for(int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      switch (c) {
+        case '&' -> append("&amp;");
+        case '<' -> append("&lt;");
+        case '>' -> append("&gt;");
+        case '"' -> append("&quot;");
+        case '\'' -> append("&#39;");
+        default -> append(c);
+      }
+    }
+  }
+
+  private void append(String text) {
+    int start = 0;
+    while(start < text.length()) {
+      if(!chars.hasRemaining()) {
+        encode(false);
+      }
+      final int end = Math.min(text.length(), start + chars.remaining());
+      chars.put(text, start, end);
+      start = end;
+    }
+  }
+
+  private void append(char c) {
+    if(!chars.hasRemaining()) {
+      encode(false);
+    }
+    chars.put(c);
+  }
+
+  /**
+   * Encodes the buffered chars, writing the byte buffer out whenever it fills. A high surrogate at the end of
+   * the chars stays buffered until its pair arrives.
+   */
+  private void encode(boolean endOfInput) {
+    chars.flip();
+    try {
+      while(true) {
+        final CoderResult result = encoder.encode(chars, bytes, endOfInput);
+        if(result.isOverflow()) {
+          drain();
+        }
+        else if(result.isUnderflow()) {
+          break;
+        }
+        else {
+          result.throwException();
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    chars.compact();
+  }
+
+  private void drain() throws IOException {
+    bytes.flip();
+    while(bytes.hasRemaining()) {
+      written += channel.write(bytes);
+    }
+    bytes.clear();
+  }
+}
@@ -1,5 +1,7 @@
 package designpatterns.factory;
 
+import java.nio.file.Path;
+
 public class DocumentFactory {
 
   private DocumentFactory() {}
@@ -11,4 +13,15 @@ public class DocumentFactory {
       case PRESENTATION -> new Presentation();
     };
   }
+
+  /**
+   * Creates a document whose content is paged in on demand through the shared {@link PageCache}.
+   */
+  public static LazyDocument getLazyDocument(DocumentTypes type, Path content) {
+    return getLazyDocument(type, content, PageCache.shared());
+  }
+
+  public static LazyDocument getLazyDocument(DocumentTypes type, Path content, PageCache cache) {
+    return new LazyDocument(getDocument(type), content, cache, LazyDocument.DEFAULT_READ_AHEAD);
+  }
 }
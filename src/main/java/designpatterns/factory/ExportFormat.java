@@ -0,0 +1,5 @@
+package designpatterns.factory;
+
+public enum ExportFormat {
+  CSV, JSON, HTML
+}
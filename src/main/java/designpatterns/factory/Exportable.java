@@ -0,0 +1,13 @@
+package designpatterns.factory;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Tabular view of a document's content for {@link DocumentExporter}. Rows are pushed one at a time so content
+ * can be generated while it is exported; the row array may be reused between calls.
+ */
+public interface Exportable {
+  List<String> columns();
+  void forEachRow(Consumer<String[]> action);
+}
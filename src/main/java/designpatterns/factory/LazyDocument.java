@@ -0,0 +1,398 @@
+package designpatterns.factory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * Document whose content is loaded on demand. Opening it only reads the metadata (the content size); content is
+ * then paged in through a {@link PageCache}, which may be shared across documents. When pages are read one after
+ * another, the following pages are read ahead on the read-ahead executor, by default a shared pool of daemon
+ * threads reserved for this blocking I/O.
+ * <p>
+ * Writes are kept in memory per page and tracked as dirty. {@link #save()} appends only the dirty pages to a
+ * change log next to the content file ({@code <content>.log}), so its cost depends on the size of the change and
+ * not of the document. Saved pages are kept apart from later unsaved writes to the same page and are checkpointed
+ * into the content file once enough have accumulated, on {@link #close()}, and on the next {@link #open()} if the
+ * process stopped before that. Log records carry the byte offset of the page and a CRC32C, so a log can be
+ * recovered whatever the page size of the cache it is reopened with, and recovery stops at the first torn or
+ * corrupt record.
+ */
+public class LazyDocument implements Document {
+  private static final Logger log = LoggerFactory.getLogger(LazyDocument.class);
+  private static final AtomicLong IDS = new AtomicLong();
+
+  public static final int DEFAULT_READ_AHEAD = 4;
+  public static final int DEFAULT_CHECKPOINT_PAGES = 1024;
+
+  // Record layout: crc:4 position:8 length:4 bytes:length, the CRC32C covering everything after itself.
+  private static final int RECORD_HEADER = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+  private static final ExecutorService READ_AHEAD = Executors.newCachedThreadPool(task -> {
+    final Thread thread = new Thread(task, "lazy-document-read-ahead");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final long id = IDS.incrementAndGet();
+  private final Document document;
+  private final Path content;
+  private final Path changeLog;
+  private final PageCache cache;
+  private final int pageSize;
+  private final int readAhead;
+  private final int checkpointPages;
+  private final Executor readAheadExecutor;
+  // Pages logged by save() but not yet checkpointed into the content file.
+  private final Map<Long, byte[]> saved = new ConcurrentHashMap<>();
+  // Pages written since the last save; they shadow the saved pages.
+  private final Map<Long, byte[]> modified = new ConcurrentHashMap<>();
+  private final TreeSet<Long> dirty = new TreeSet<>();
+
+  private FileChannel channel;
+  private FileChannel logChannel;
+  private long size;
+  private int loggedPages;
+  private volatile long lastPage = -2;
+
+  public LazyDocument(Document document, Path content, PageCache cache, int readAhead) {
+    this(document, content, cache, readAhead, DEFAULT_CHECKPOINT_PAGES);
+  }
+
+  public LazyDocument(Document document, Path content, PageCache cache, int readAhead, int checkpointPages) {
+    this(document, content, cache, readAhead, checkpointPages, READ_AHEAD);
+  }
+
+  public LazyDocument(Document document, Path content, PageCache cache, int readAhead, int checkpointPages,
+                      Executor readAheadExecutor) {
+    this.document = document;
+    this.content = content;
+    this.changeLog = content.resolveSibling(content.getFileName() + ".log");
+    this.cache = cache;
+    this.pageSize = cache.getPageSize();
+    this.readAhead = readAhead;
+    this.checkpointPages = checkpointPages;
+    this.readAheadExecutor = readAheadExecutor;
+  }
+
+  @Override
+  public synchronized void open() {
+    if(channel != null) {
+      return;
+    }
+    try {
+      channel = FileChannel.open(content, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      size = channel.size();
+      if(Files.exists(changeLog)) {
+        recover();
+      }
+      document.open();
+    } catch (IOException e) {
+      closeQuietly();
+      throw new UncheckedIOException(e);
+    } catch (RuntimeException | Error e) {
+      closeQuietly();
+      throw e;
+    }
+    log.debug("Opened {} lazily, {} bytes in {} pages.", content, size, getPageCount());
+  }
+
+  /**
+   * Appends the pages changed since the last save to the change log.
+   */
+  @Override
+  public synchronized void save() {
+    channel();
+    if(!dirty.isEmpty()) {
+      try {
+        if(logChannel == null) {
+          logChannel = FileChannel.open(changeLog, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+          logChannel.position(logChannel.size());
+        }
+        final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        for(long page : dirty) {
+          final byte[] bytes = modified.get(page);
+          header.clear();
+          header.putInt(0).putLong(page * pageSize).putInt(bytes.length);
+          header.putInt(0, checksum(header, bytes, bytes.length)).flip();
+          writeFully(logChannel, header);
+          writeFully(logChannel, ByteBuffer.wrap(bytes));
+        }
+        logChannel.force(false);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      for(long page : dirty) {
+        saved.put(page, modified.get(page));
+        modified.remove(page);
+      }
+      loggedPages += dirty.size();
+      dirty.clear();
+    }
+    document.save();
+    if(loggedPages >= checkpointPages) {
+      checkpoint();
+    }
+  }
+
+  /**
+   * Writes the saved pages into the content file and empties the change log. Unsaved writes are not affected.
+   */
+  public synchronized void checkpoint() {
+    final FileChannel current = channel();
+    if(loggedPages == 0) {
+      return;
+    }
+    try {
+      for(Map.Entry<Long, byte[]> entry : saved.entrySet()) {
+        writeFully(current, ByteBuffer.wrap(entry.getValue()), entry.getKey() * pageSize);
+      }
+      current.force(false);
+      logChannel.truncate(0);
+      logChannel.force(false);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    // Invalidate before dropping the saved copy, so readers never fall back to a stale cached page.
+    for(long page : saved.keySet()) {
+      cache.invalidate(id, page);
+      saved.remove(page);
+    }
+    log.debug("Checkpointed {} logged pages into {}.", loggedPages, content);
+    loggedPages = 0;
+  }
+
+  /**
+   * Checkpoints the saved changes and closes the document. Changes made since the last save are discarded.
+   */
+  @Override
+  public synchronized void close() {
+    if(channel == null) {
+      return;
+    }
+    try {
+      modified.clear();
+      dirty.clear();
+      checkpoint();
+    } finally {
+      closeQuietly();
+      cache.invalidate(id);
+      document.close();
+    }
+  }
+
+  public Document getDocument() {
+    return document;
+  }
+
+  public long getSize() {
+    return size;
+  }
+
+  public long getPageCount() {
+    return (size + pageSize - 1) / pageSize;
+  }
+
+  public synchronized int getDirtyPageCount() {
+    return dirty.size();
+  }
+
+  /**
+   * Returns a read-only view of the page with the given index.
+   */
+  public ByteBuffer readPage(long page) {
+    final FileChannel current = channel();
+    if(page < 0 || page >= getPageCount()) {
+      throw new IndexOutOfBoundsException("Page " + page + " of " + getPageCount() + ".");
+    }
+    final byte[] changed = inMemory(page);
+    final ByteBuffer buffer = changed != null ? ByteBuffer.wrap(changed).asReadOnlyBuffer()
+                                              : cache.get(id, page, index -> load(current, index));
+    final long previous = lastPage;
+    lastPage = page;
+    if(page == previous + 1 && readAhead > 0) {
+      final long last = Math.min(page + readAhead, getPageCount() - 1);
+      CompletableFuture.runAsync(() -> {
+        for(long next = page + 1; next <= last; next++) {
+          if(inMemory(next) == null) {
+            cache.prefetch(id, next, index -> load(current, index));
+          }
+        }
+      }, readAheadExecutor).exceptionally(failure -> {
+        log.debug("Read-ahead of {} failed.", content, failure);
+        return null;
+      });
+    }
+    return buffer;
+  }
+
+  /**
+   * Copies up to {@code length} bytes starting at {@code position} into the array and returns how many were
+   * copied, or -1 past the end of the content.
+   */
+  public int read(long position, byte[] destination, int offset, int length) {
+    if(position >= size) {
+      return -1;
+    }
+    final int total = (int) Math.min(length, size - position);
+    int copied = 0;
+    while(copied < total) {
+      final long at = position + copied;
+      final ByteBuffer page = readPage(at / pageSize);
+      final int inPage = (int) (at % pageSize);
+      final int count = Math.min(total - copied, page.limit() - inPage);
+      page.get(inPage, destination, offset + copied, count);
+      copied += count;
+    }
+    return copied;
+  }
+
+  /**
+   * Overwrites existing content starting at {@code position} and marks the touched pages dirty.
+   */
+  public synchronized void write(long position, byte[] source, int offset, int length) {
+    channel();
+    if(position < 0 || position + length > size) {
+      throw new IndexOutOfBoundsException("Write of " + length + " bytes at " + position + " exceeds " + size + " bytes.");
+    }
+    int written = 0;
+    while(written < length) {
+      final long at = position + written;
+      final long page = at / pageSize;
+      final ByteBuffer current = readPage(page);
+      // Copy on write, so readers never see a page that is being modified.
+      final byte[] bytes = new byte[current.limit()];
+      current.get(0, bytes);
+      final int inPage = (int) (at % pageSize);
+      final int count = Math.min(length - written, bytes.length - inPage);
+      System.arraycopy(source, offset + written, bytes, inPage, count);
+      modified.put(page, bytes);
+      dirty.add(page);
+      written += count;
+    }
+  }
+
+  private byte[] inMemory(long page) {
+    final byte[] changed = modified.get(page);
+    return changed != null ? changed : saved.get(page);
+  }
+
+  private synchronized FileChannel channel() {
+    if(channel == null) {
+      throw new IllegalStateException("Document is not open.");
+    }
+    return channel;
+  }
+
+  private ByteBuffer load(FileChannel source, long page) {
+    final long position = page * pageSize;
+    final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(pageSize, size - position));
+    try {
+      while(buffer.hasRemaining()) {
+        if(source.read(buffer, position + buffer.position()) < 0) {
+          break;
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return buffer.flip();
+  }
+
+  /**
+   * Writes the pages saved to the change log by a previous run into the content file and empties the log. The
+   * first record that is cut short by a crash during save, or fails validation, ends the log.
+   */
+  private void recover() throws IOException {
+    logChannel = FileChannel.open(changeLog, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    final long logSize = logChannel.size();
+    final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+    long position = 0;
+    int recovered = 0;
+    while(position + RECORD_HEADER <= logSize) {
+      header.clear();
+      readFully(logChannel, header, position);
+      final int checksum = header.flip().getInt();
+      final long offset = header.getLong();
+      final int length = header.getInt();
+      if(offset < 0 || length < 0 || offset > size - length || length > logSize - position - RECORD_HEADER) {
+        break;
+      }
+      final ByteBuffer bytes = ByteBuffer.allocate(length);
+      readFully(logChannel, bytes, position + RECORD_HEADER);
+      if(checksum(header, bytes.array(), length) != checksum) {
+        break;
+      }
+      writeFully(channel, bytes.flip(), offset);
+      recovered++;
+      position += RECORD_HEADER + length;
+    }
+    // Applying the log again after a crash here is harmless, so the content only needs to be durable before the
+    // log is emptied.
+    channel.force(false);
+    logChannel.truncate(0);
+    logChannel.force(false);
+    log.debug("Recovered {} logged pages of {}.", recovered, content);
+  }
+
+  /**
+   * CRC32C of a change log record, covering the header after its checksum field and the page bytes.
+   */
+  private static int checksum(ByteBuffer header, byte[] bytes, int length) {
+    final CRC32C crc = new CRC32C();
+    crc.update(header.array(), Integer.BYTES, RECORD_HEADER - Integer.BYTES);
+    crc.update(bytes, 0, length);
+    return (int) crc.getValue();
+  }
+
+  private void closeQuietly() {
+    for(FileChannel open : new FileChannel[] { channel, logChannel }) {
+      if(open != null) {
+        try {
+          open.close();
+        } catch (IOException e) {
+          log.warn("Failed to close {}.", content, e);
+        }
+      }
+    }
+    channel = null;
+    logChannel = null;
+  }
+
+  private static void writeFully(FileChannel target, ByteBuffer buffer) throws IOException {
+    while(buffer.hasRemaining()) {
+      target.write(buffer);
+    }
+  }
+
+  private static void writeFully(FileChannel target, ByteBuffer buffer, long position) throws IOException {
+    while(buffer.hasRemaining()) {
+      position += target.write(buffer, position);
+    }
+  }
+
+  private static void readFully(FileChannel source, ByteBuffer buffer, long position) throws IOException {
+    while(buffer.hasRemaining()) {
+      final int read = source.read(buffer, position + buffer.position());
+      if(read < 0) {
+        throw new IOException("Unexpected end of change log.");
+      }
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package designpatterns.factory;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded page cache shared by {@link LazyDocument}s. Pages are kept in least-recently-used order and the
+ * eldest pages are evicted once the resident bytes exceed the capacity. Loading happens outside the lock, so a
+ * slow read does not block hits on other pages. A page whose load overlapped an invalidation is returned to the
+ * caller but not cached, as it may hold content from before the invalidation or belong to a closed document.
+ */
+public class PageCache {
+
+  public static final int DEFAULT_PAGE_SIZE = 64 * 1024;
+  public static final long DEFAULT_CAPACITY = 64L * 1024 * 1024;
+
+  private static final PageCache SHARED = new PageCache(DEFAULT_CAPACITY, DEFAULT_PAGE_SIZE);
+
+  private record Key(long document, long page) {}
+
+  private final long capacity;
+  private final int pageSize;
+  private final LinkedHashMap<Key, ByteBuffer> pages = new LinkedHashMap<>(16, 0.75f, true);
+  private long residentBytes;
+  // Incremented by every invalidation; loads that started under an older generation are not cached.
+  private long generation;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  public PageCache(long capacity, int pageSize) {
+    if(pageSize < 1 || capacity < pageSize) {
+      throw new IllegalArgumentException("Capacity must hold at least one page.");
+    }
+    this.capacity = capacity;
+    this.pageSize = pageSize;
+  }
+
+  public static PageCache shared() {
+    return SHARED;
+  }
+
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Returns a read-only view of the page, loading it with the loader on a miss.
+   */
+  public ByteBuffer get(long document, long page, LongFunction<ByteBuffer> loader) {
+    final Key key = new Key(document, page);
+    final long loadGeneration;
+    synchronized (this) {
+      final ByteBuffer cached = pages.get(key);
+      if(cached != null) {
+        hits++;
+        return cached.asReadOnlyBuffer();
+      }
+      misses++;
+      loadGeneration = generation;
+    }
+    final ByteBuffer loaded = loader.apply(page);
+    put(key, loaded, loadGeneration);
+    return loaded.asReadOnlyBuffer();
+  }
+
+  public synchronized boolean contains(long document, long page) {
+    return pages.containsKey(new Key(document, page));
+  }
+
+  /**
+   * Loads the page if it is not cached yet, without counting a hit or miss.
+   */
+  public void prefetch(long document, long page, LongFunction<ByteBuffer> loader) {
+    final Key key = new Key(document, page);
+    final long loadGeneration;
+    synchronized (this) {
+      if(pages.containsKey(key)) {
+        return;
+      }
+      loadGeneration = generation;
+    }
+    put(key, loader.apply(page), loadGeneration);
+  }
+
+  public synchronized void invalidate(long document, long page) {
+    generation++;
+    final ByteBuffer removed = pages.remove(new Key(document, page));
+    if(removed != null) {
+      residentBytes -= removed.capacity();
+    }
+  }
+
+  public synchronized void invalidate(long document) {
+    generation++;
+    final Iterator<Map.Entry<Key, ByteBuffer>> iterator = pages.entrySet().iterator();
+    while(iterator.hasNext()) {
+      final Map.Entry<Key, ByteBuffer> entry = iterator.next();
+      if(entry.getKey().document() == document) {
+        residentBytes -= entry.getValue().capacity();
+        iterator.remove();
+      }
+    }
+  }
+
+  public synchronized long getResidentBytes() {
+    return residentBytes;
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  public synchronized double getHitRate() {
+    final long requests = hits + misses;
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+
+  private synchronized void put(Key key, ByteBuffer page, long loadGeneration) {
+    if(loadGeneration != generation) {
+      return;
+    }
+    final ByteBuffer previous = pages.put(key, page);
+    residentBytes += page.capacity() - (previous == null ? 0 : previous.capacity());
+    final Iterator<ByteBuffer> eldest = pages.values().iterator();
+    while(residentBytes > capacity && eldest.hasNext()) {
+      final ByteBuffer evicted = eldest.next();
+      residentBytes -= evicted.capacity();
+      eldest.remove();
+      evictions++;
+    }
+  }
+}
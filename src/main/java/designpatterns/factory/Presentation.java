@@ -3,9 +3,32 @@ package designpatterns.factory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class Presentation implements Document {
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class Presentation implements Document, Exportable {
 
   private static final Logger log = LoggerFactory.getLogger(Presentation.class);
+
+  private static final List<String> COLUMNS = List.of("title", "content");
+
+  private final List<String[]> slides = new ArrayList<>();
+
+  public void addSlide(String title, String content) {
+    slides.add(new String[] { title, content });
+  }
+
+  @Override
+  public List<String> columns() {
+    return COLUMNS;
+  }
+
+  @Override
+  public void forEachRow(Consumer<String[]> action) {
+    slides.forEach(action);
+  }
+
   @Override
   public void open() {
     log.info("Opening Presentation.");
@@ -3,9 +3,32 @@ package designpatterns.factory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class Report implements Document {
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class Report implements Document, Exportable {
 
   private static final Logger log = LoggerFactory.getLogger(Report.class);
+
+  private static final List<String> COLUMNS = List.of("title", "body");
+
+  private final List<String[]> sections = new ArrayList<>();
+
+  public void addSection(String title, String body) {
+    sections.add(new String[] { title, body });
+  }
+
+  @Override
+  public List<String> columns() {
+    return COLUMNS;
+  }
+
+  @Override
+  public void forEachRow(Consumer<String[]> action) {
+    sections.forEach(action);
+  }
+
   @Override
   public void open() {
     log.info("Opening Report.");
@@ -6,6 +6,33 @@ import org.slf4j.LoggerFactory;
 public class SpreadSheet implements Document {
 
   private static final Logger log = LoggerFactory.getLogger(SpreadSheet.class);
+
+  public static final int DEFAULT_ROWS = 1000;
+  public static final int DEFAULT_COLUMNS = 26;
+
+  private final int rows;
+  private final int columns;
+  private CellEngine cells;
+
+  public SpreadSheet() {
+    this(DEFAULT_ROWS, DEFAULT_COLUMNS);
+  }
+
+  public SpreadSheet(int rows, int columns) {
+    this.rows = rows;
+    this.columns = columns;
+  }
+
+  /**
+   * The cell content of the sheet, created on first use.
+   */
+  public synchronized CellEngine getCells() {
+    if(cells == null) {
+      cells = new CellEngine(rows, columns);
+    }
+    return cells;
+  }
+
   @Override
   public void open() {
     log.info("Opening SpreadSheet.");
@@ -0,0 +1,6 @@
+package designpatterns.prototype;
+
+@FunctionalInterface
+public interface Copier<T> {
+  T copy(T source);
+}
@@ -0,0 +1,8 @@
+package designpatterns.prototype;
+
+public enum CopyMode {
+  /** The copy shares the field's value with the source. */
+  SHALLOW,
+  /** The copy gets its own copy of the field's value. */
+  DEEP
+}
@@ -54,11 +54,18 @@ public class Employee implements Cloneable {
     this.hobbies.add(hobby);
   }
 
+  /**
+   * Same deep copy as {@link #clone()}, without going through {@code Object.clone()}.
+   */
+  public Employee copy() {
+    return PrototypeCopiers.EMPLOYEE.copy(this);
+  }
+
   @Override
   public Employee clone() {
     try {
       Employee person = (Employee) super.clone();
-      person.setHobbies(new ArrayList<>(this.hobbies)); // Deep copy the reference type.
+      person.setHobbies(this.hobbies == null ? null : new ArrayList<>(this.hobbies)); // Deep copy the reference type.
       return person;
     } catch (CloneNotSupportedException e) {
       throw new AssertionError();
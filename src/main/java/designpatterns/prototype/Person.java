@@ -1,6 +1,5 @@
 package designpatterns.prototype;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class Person implements PersonPrototype {
@@ -54,6 +53,6 @@ public class Person implements PersonPrototype {
 
   @Override
   public Person copy() {
-    return new Person(this.name, this.age, this.address, new ArrayList<>(hobbies));
+    return PrototypeCopiers.PERSON.copy(this);
   }
 }
@@ -0,0 +1,124 @@
+package designpatterns.prototype;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static designpatterns.codec.BinaryCodec.getSignedVarInt;
+import static designpatterns.codec.BinaryCodec.getString;
+import static designpatterns.codec.BinaryCodec.getVarInt;
+import static designpatterns.codec.BinaryCodec.putSignedVarInt;
+import static designpatterns.codec.BinaryCodec.putString;
+import static designpatterns.codec.BinaryCodec.putVarInt;
+import static designpatterns.codec.BinaryCodec.signedVarIntSize;
+import static designpatterns.codec.BinaryCodec.stringSize;
+import static designpatterns.codec.BinaryCodec.varIntSize;
+
+/**
+ * Compact binary encoding of {@link Person} and {@link Employee}, which share the same schema: a version byte,
+ * a bitmap of the optional fields that are present, the age as a zig-zag varint, then the present fields.
+ * Strings are length-prefixed UTF-8 and hobbies a varint count followed by the strings.
+ */
+public class PrototypeCodec {
+
+  public static final byte VERSION = 1;
+
+  private static final int NAME = 1;
+  private static final int ADDRESS = 1 << 1;
+  private static final int HOBBIES = 1 << 2;
+
+  private PrototypeCodec() {}
+
+  public static int encodedSize(Person person) {
+    return encodedSize(person.getName(), person.getAge(), person.getAddress(), person.getHobbies());
+  }
+
+  public static int encodedSize(Employee employee) {
+    return encodedSize(employee.getName(), employee.getAge(), employee.getAddress(), employee.getHobbies());
+  }
+
+  public static void encode(Person person, ByteBuffer buffer) {
+    encode(buffer, person.getName(), person.getAge(), person.getAddress(), person.getHobbies());
+  }
+
+  public static void encode(Employee employee, ByteBuffer buffer) {
+    encode(buffer, employee.getName(), employee.getAge(), employee.getAddress(), employee.getHobbies());
+  }
+
+  public static Person decodePerson(ByteBuffer buffer) {
+    final int fields = header(buffer);
+    final int age = getSignedVarInt(buffer);
+    final String name = (fields & NAME) != 0 ? getString(buffer) : null;
+    final String address = (fields & ADDRESS) != 0 ? getString(buffer) : null;
+    final List<String> hobbies = (fields & HOBBIES) != 0 ? getHobbies(buffer) : null;
+    return new Person(name, age, address, hobbies);
+  }
+
+  public static Employee decodeEmployee(ByteBuffer buffer) {
+    final int fields = header(buffer);
+    final int age = getSignedVarInt(buffer);
+    final String name = (fields & NAME) != 0 ? getString(buffer) : null;
+    final String address = (fields & ADDRESS) != 0 ? getString(buffer) : null;
+    final List<String> hobbies = (fields & HOBBIES) != 0 ? getHobbies(buffer) : null;
+    return new Employee(name, age, address, hobbies);
+  }
+
+  private static int encodedSize(String name, int age, String address, List<String> hobbies) {
+    int size = 2 + signedVarIntSize(age);
+    if(name != null) {
+      size += stringSize(name);
+    }
+    if(address != null) {
+      size += stringSize(address);
+    }
+    if(hobbies != null) {
+      size += varIntSize(hobbies.size());
+      for(String hobby : hobbies) {
+        size += stringSize(hobby);
+      }
+    }
+    return size;
+  }
+
+  private static void encode(ByteBuffer buffer, String name, int age, String address, List<String> hobbies) {
+    int fields = 0;
+    fields |= name != null ? NAME : 0;
+    fields |= address != null ? ADDRESS : 0;
+    fields |= hobbies != null ? HOBBIES : 0;
+
+    buffer.put(VERSION).put((byte) fields);
+    putSignedVarInt(buffer, age);
+    if(name != null) {
+      putString(buffer, name);
+    }
+    if(address != null) {
+      putString(buffer, address);
+    }
+    if(hobbies != null) {
+      putVarInt(buffer, hobbies.size());
+      for(String hobby : hobbies) {
+        putString(buffer, hobby);
+      }
+    }
+  }
+
+  private static int header(ByteBuffer buffer) {
+    final byte version = buffer.get();
+    if(version != VERSION) {
+      throw new IllegalArgumentException("Unsupported prototype schema version " + version + ".");
+    }
+    return buffer.get();
+  }
+
+  private static List<String> getHobbies(ByteBuffer buffer) {
+    final int count = getVarInt(buffer);
+    if(count < 0 || count > buffer.remaining()) {
+      throw new IllegalArgumentException("Malformed hobby count.");
+    }
+    final List<String> hobbies = new ArrayList<>(count);
+    for(int i = 0; i < count; i++) {
+      hobbies.add(getString(buffer));
+    }
+    return hobbies;
+  }
+}
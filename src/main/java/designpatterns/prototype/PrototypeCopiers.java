@@ -0,0 +1,36 @@
+package designpatterns.prototype;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Straight-line copiers for the prototype classes. Each copier reads the fields through getters and calls the
+ * constructor directly, so unlike {@code Object.clone()} it needs no {@code Cloneable} check or exception
+ * handling and is small enough to be inlined. Strings and ints are immutable and always shared; only the
+ * hobbies list has a configurable {@link CopyMode}.
+ */
+public class PrototypeCopiers {
+
+  public static final Copier<Person> PERSON = person(CopyMode.DEEP);
+  public static final Copier<Employee> EMPLOYEE = employee(CopyMode.DEEP);
+
+  private PrototypeCopiers() {}
+
+  public static Copier<Person> person(CopyMode hobbies) {
+    return switch (hobbies) {
+      case SHALLOW -> source -> new Person(source.getName(), source.getAge(), source.getAddress(), source.getHobbies());
+      case DEEP -> source -> new Person(source.getName(), source.getAge(), source.getAddress(), copyOf(source.getHobbies()));
+    };
+  }
+
+  public static Copier<Employee> employee(CopyMode hobbies) {
+    return switch (hobbies) {
+      case SHALLOW -> source -> new Employee(source.getName(), source.getAge(), source.getAddress(), source.getHobbies());
+      case DEEP -> source -> new Employee(source.getName(), source.getAge(), source.getAddress(), copyOf(source.getHobbies()));
+    };
+  }
+
+  private static List<String> copyOf(List<String> hobbies) {
+    return hobbies == null ? null : new ArrayList<>(hobbies);
+  }
+}
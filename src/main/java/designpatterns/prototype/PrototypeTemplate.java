@@ -0,0 +1,108 @@
+package designpatterns.prototype;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread-safe template for the prototypes. The template state is an immutable snapshot published through an
+ * {@link AtomicReference}: readers clone from whichever snapshot is current without locking and never see a
+ * half-applied update, while writers replace the snapshot with a modified copy. Suited to templates that are
+ * cloned often and changed rarely.
+ */
+public class PrototypeTemplate {
+
+  private record Snapshot(String name, int age, String address, List<String> hobbies) {}
+
+  private final AtomicReference<Snapshot> snapshot;
+
+  public PrototypeTemplate(String name, int age, String address, List<String> hobbies) {
+    this.snapshot = new AtomicReference<>(new Snapshot(name, age, address, immutable(hobbies)));
+  }
+
+  public static PrototypeTemplate of(Person person) {
+    return new PrototypeTemplate(person.getName(), person.getAge(), person.getAddress(), person.getHobbies());
+  }
+
+  public static PrototypeTemplate of(Employee employee) {
+    return new PrototypeTemplate(employee.getName(), employee.getAge(), employee.getAddress(), employee.getHobbies());
+  }
+
+  public Person newPerson() {
+    final Snapshot current = snapshot.get();
+    return new Person(current.name(), current.age(), current.address(), mutable(current.hobbies()));
+  }
+
+  public Employee newEmployee() {
+    final Snapshot current = snapshot.get();
+    return new Employee(current.name(), current.age(), current.address(), mutable(current.hobbies()));
+  }
+
+  public String getName() {
+    return snapshot.get().name();
+  }
+
+  public int getAge() {
+    return snapshot.get().age();
+  }
+
+  public String getAddress() {
+    return snapshot.get().address();
+  }
+
+  /**
+   * Unmodifiable view of the current hobbies.
+   */
+  public List<String> getHobbies() {
+    return snapshot.get().hobbies();
+  }
+
+  public void setName(String name) {
+    publish(current -> new Snapshot(name, current.age(), current.address(), current.hobbies()));
+  }
+
+  public void setAge(int age) {
+    publish(current -> new Snapshot(current.name(), age, current.address(), current.hobbies()));
+  }
+
+  public void setAddress(String address) {
+    publish(current -> new Snapshot(current.name(), current.age(), address, current.hobbies()));
+  }
+
+  public void setHobbies(List<String> hobbies) {
+    final List<String> copy = immutable(hobbies);
+    publish(current -> new Snapshot(current.name(), current.age(), current.address(), copy));
+  }
+
+  public void addHobby(String hobby) {
+    publish(current -> {
+      final List<String> hobbies = current.hobbies() == null ? new ArrayList<>(1) : new ArrayList<>(current.hobbies());
+      hobbies.add(hobby);
+      return new Snapshot(current.name(), current.age(), current.address(), List.copyOf(hobbies));
+    });
+  }
+
+  /**
+   * Applies several changes as one update, so no clone can observe only some of them. The change is applied to
+   * a fresh copy and may be retried if another writer got in first, so it must not have side effects.
+   */
+  public void update(UnaryOperator<Person> change) {
+    publish(current -> {
+      final Person person = change.apply(new Person(current.name(), current.age(), current.address(), mutable(current.hobbies())));
+      return new Snapshot(person.getName(), person.getAge(), person.getAddress(), immutable(person.getHobbies()));
+    });
+  }
+
+  private void publish(UnaryOperator<Snapshot> change) {
+    snapshot.updateAndGet(change);
+  }
+
+  private static List<String> immutable(List<String> hobbies) {
+    return hobbies == null ? null : List.copyOf(hobbies);
+  }
+
+  private static List<String> mutable(List<String> hobbies) {
+    return hobbies == null ? null : new ArrayList<>(hobbies);
+  }
+}
@@ -0,0 +1,185 @@
+package designpatterns.singleton;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Starts and stops a set of named singletons in dependency order.
+ * <p>
+ * Each singleton is registered with a factory and the names of the singletons it depends on. {@link #start(Executor)}
+ * rejects missing dependencies and cycles, then creates every singleton once all of its dependencies exist,
+ * running independent factories in parallel on the executor. A factory receives the manager, so it can
+ * {@link #get(String, Class) get} its dependencies. {@link #close()} shuts the singletons down in the reverse of the
+ * order they were created in, closing those that are {@link AutoCloseable}.
+ */
+public class SingletonLifecycleManager implements AutoCloseable {
+  private static final Logger log = LoggerFactory.getLogger(SingletonLifecycleManager.class);
+
+  private enum State {
+    NEW, STARTED, CLOSED
+  }
+
+  private record Definition(String name, Function<SingletonLifecycleManager, ?> factory, List<String> dependencies) {}
+
+  private final Map<String, Definition> definitions = new LinkedHashMap<>();
+  private final Map<String, Object> instances = new ConcurrentHashMap<>();
+  private final ConcurrentLinkedQueue<String> created = new ConcurrentLinkedQueue<>();
+  private State state = State.NEW;
+
+  public synchronized SingletonLifecycleManager register(String name, Function<SingletonLifecycleManager, ?> factory,
+                                                         String... dependencies) {
+    if(state != State.NEW) {
+      throw new IllegalStateException("Cannot register " + name + " after start.");
+    }
+    if(definitions.containsKey(Objects.requireNonNull(name))) {
+      throw new IllegalArgumentException("Singleton " + name + " is already registered.");
+    }
+    definitions.put(name, new Definition(name, Objects.requireNonNull(factory), List.of(dependencies)));
+    return this;
+  }
+
+  /**
+   * Creates every registered singleton and returns once all exist. If a factory fails, the singletons created so
+   * far are shut down again and the failure is rethrown.
+   *
+   * @throws IllegalArgumentException if a dependency is not registered or the dependencies form a cycle
+   */
+  public synchronized void start(Executor executor) {
+    if(state != State.NEW) {
+      throw new IllegalStateException("Singletons are already " + state.name().toLowerCase() + ".");
+    }
+    final List<Definition> order = sort();
+    final long started = System.nanoTime();
+    final Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+    for(Definition definition : order) {
+      final CompletableFuture<?>[] dependencies = definition.dependencies().stream()
+                                                            .map(futures::get)
+                                                            .toArray(CompletableFuture[]::new);
+      futures.put(definition.name(), CompletableFuture.allOf(dependencies)
+                                                      .thenRunAsync(() -> create(definition), executor));
+    }
+    state = State.STARTED;
+    try {
+      CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).join();
+    } catch (CompletionException e) {
+      shutdown();
+      throw e.getCause() instanceof RuntimeException failure ? failure : e;
+    }
+    log.debug("Started {} singletons in {} ms.", order.size(), (System.nanoTime() - started) / 1_000_000);
+  }
+
+  /**
+   * Returns a created singleton.
+   *
+   * @throws IllegalStateException if the singleton has not been created, or has been shut down
+   */
+  public <T> T get(String name, Class<T> type) {
+    final Object instance = instances.get(name);
+    if(instance == null) {
+      throw new IllegalStateException("Singleton " + name + " is not available.");
+    }
+    return type.cast(instance);
+  }
+
+  /**
+   * Names of the singletons in the order they were created.
+   */
+  public List<String> getCreationOrder() {
+    return List.copyOf(created);
+  }
+
+  /**
+   * Shuts the singletons down in the reverse of their creation order.
+   */
+  @Override
+  public synchronized void close() {
+    if(state == State.STARTED) {
+      shutdown();
+    }
+    state = State.CLOSED;
+  }
+
+  private void create(Definition definition) {
+    final Object instance = definition.factory().apply(this);
+    if(instance == null) {
+      throw new IllegalStateException("Factory of singleton " + definition.name() + " returned null.");
+    }
+    instances.put(definition.name(), instance);
+    created.add(definition.name());
+  }
+
+  private void shutdown() {
+    final List<String> order = new ArrayList<>(created);
+    Collections.reverse(order);
+    for(String name : order) {
+      final Object instance = instances.remove(name);
+      if(instance instanceof AutoCloseable closeable) {
+        try {
+          closeable.close();
+        } catch (Exception e) {
+          log.warn("Failed to shut down singleton {}.", name, e);
+        }
+      }
+    }
+    state = State.CLOSED;
+  }
+
+  /**
+   * Orders the definitions so that each comes after its dependencies (Kahn's algorithm).
+   */
+  private List<Definition> sort() {
+    final Map<String, Integer> pending = new HashMap<>();
+    final Map<String, List<String>> dependents = new HashMap<>();
+    for(Definition definition : definitions.values()) {
+      pending.put(definition.name(), definition.dependencies().size());
+      for(String dependency : definition.dependencies()) {
+        if(!definitions.containsKey(dependency)) {
+          throw new IllegalArgumentException("Singleton " + definition.name() + " depends on unknown " + dependency + ".");
+        }
+        dependents.computeIfAbsent(dependency, ignored -> new ArrayList<>()).add(definition.name());
+      }
+    }
+    final ArrayDeque<String> ready = new ArrayDeque<>();
+    pending.forEach((name, count) -> {
+      if(count == 0) {
+        ready.add(name);
+      }
+    });
+    final List<Definition> order = new ArrayList<>(definitions.size());
+    while(!ready.isEmpty()) {
+      final String name = ready.poll();
+      order.add(definitions.get(name));
+      for(String dependent : dependents.getOrDefault(name, List.of())) {
+        if(pending.merge(dependent, -1, Integer::sum) == 0) {
+          ready.add(dependent);
+        }
+      }
+    }
+    if(order.size() < definitions.size()) {
+      final List<String> cycle = new ArrayList<>();
+      pending.forEach((name, count) -> {
+        if(count > 0) {
+          cycle.add(name);
+        }
+      });
+      Collections.sort(cycle);
+      throw new IllegalArgumentException("Singletons " + cycle + " are part of or depend on a dependency cycle.");
+    }
+    return order;
+  }
+}
@@ -5,7 +5,7 @@ public class SingletonWithReflection {
   private static final SingletonWithReflection INSTANCE;
 
   private SingletonWithReflection() {
-    if(INSTANCE == null) {
+    if(INSTANCE != null) {
       throw new IllegalStateException("Singleton instance already exists.");
     }
   }
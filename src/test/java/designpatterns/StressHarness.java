@@ -0,0 +1,134 @@
+package designpatterns;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives an operation from many threads at once and reports throughput, latency percentiles and the number of
+ * races the operation detected. Used by the tests tagged {@code stress}, which only run with the {@code stress}
+ * Maven profile; {@code -Dstress.scale=N} multiplies their volumes for soak runs.
+ */
+public class StressHarness {
+  private static final Logger log = LoggerFactory.getLogger(StressHarness.class);
+
+  public static final String TAG = "stress";
+
+  /** Latencies kept per thread; longer runs sample every n-th operation. */
+  private static final int SAMPLES_PER_THREAD = 4096;
+
+  @FunctionalInterface
+  public interface Operation {
+    /**
+     * Runs one operation and returns false if it observed a race.
+     */
+    boolean run(int thread, long iteration) throws Exception;
+  }
+
+  public record Result(String name, long operations, long elapsedNanos, long p50Nanos, long p99Nanos, long maxNanos,
+                       long races) {
+
+    public double throughput() {
+      return elapsedNanos == 0 ? 0 : operations * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Combines the results of consecutive runs. Percentiles are those of the worst run.
+     */
+    public Result plus(Result other) {
+      return new Result(name, operations + other.operations, elapsedNanos + other.elapsedNanos,
+                        Math.max(p50Nanos, other.p50Nanos), Math.max(p99Nanos, other.p99Nanos),
+                        Math.max(maxNanos, other.maxNanos), races + other.races);
+    }
+
+    public Result withRaces(long detected) {
+      return new Result(name, operations, elapsedNanos, p50Nanos, p99Nanos, maxNanos, detected);
+    }
+
+    public Result report() {
+      log.info("{}: {} operations in {} ms, {} ops/s, p50 {} ns, p99 {} ns, max {} ns, {} races.", name, operations,
+               elapsedNanos / 1_000_000, String.format("%.0f", throughput()), p50Nanos, p99Nanos, maxNanos, races);
+      return this;
+    }
+  }
+
+  private StressHarness() {}
+
+  public static int scale() {
+    return Math.max(1, Integer.getInteger("stress.scale", 1));
+  }
+
+  /**
+   * Starts the threads, releases them together and runs the operation the given number of times on each.
+   *
+   * @throws IllegalStateException if an operation threw
+   */
+  public static Result run(String name, int threads, long operationsPerThread, Operation operation) {
+    final CountDownLatch ready = new CountDownLatch(threads);
+    final CountDownLatch start = new CountDownLatch(1);
+    final int stride = (int) Math.max(1, (operationsPerThread + SAMPLES_PER_THREAD - 1) / SAMPLES_PER_THREAD);
+    final long[][] samples = new long[threads][];
+    final LongAdder races = new LongAdder();
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    final List<Thread> workers = new ArrayList<>(threads);
+    for(int t = 0; t < threads; t++) {
+      final int thread = t;
+      final Thread worker = new Thread(() -> {
+        final long[] latencies = new long[(int) ((operationsPerThread + stride - 1) / stride)];
+        int sampled = 0;
+        ready.countDown();
+        try {
+          start.await();
+          for(long i = 0; i < operationsPerThread; i++) {
+            final long begin = System.nanoTime();
+            final boolean ok = operation.run(thread, i);
+            final long latency = System.nanoTime() - begin;
+            if(!ok) {
+              races.increment();
+            }
+            if(i % stride == 0) {
+              latencies[sampled++] = latency;
+            }
+          }
+        } catch (Throwable e) {
+          failure.compareAndSet(null, e);
+        }
+        samples[thread] = Arrays.copyOf(latencies, sampled);
+      }, name + "-" + t);
+      workers.add(worker);
+      worker.start();
+    }
+    final long elapsed;
+    try {
+      ready.await();
+      final long begin = System.nanoTime();
+      start.countDown();
+      for(Thread worker : workers) {
+        worker.join();
+      }
+      elapsed = System.nanoTime() - begin;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while running " + name + ".", e);
+    }
+    if(failure.get() != null) {
+      throw new IllegalStateException("Operation of " + name + " failed.", failure.get());
+    }
+    final long[] all = Arrays.stream(samples).flatMapToLong(Arrays::stream).sorted().toArray();
+    return new Result(name, threads * operationsPerThread, elapsed, percentile(all, 0.50), percentile(all, 0.99),
+                      all.length == 0 ? 0 : all[all.length - 1], races.sum());
+  }
+
+  private static long percentile(long[] sorted, double fraction) {
+    if(sorted.length == 0) {
+      return 0;
+    }
+    return sorted[(int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1)];
+  }
+}
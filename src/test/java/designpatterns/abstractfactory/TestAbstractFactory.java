@@ -10,7 +10,10 @@ import org.junit.jupiter.api.Tags;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @Tags({ @Tag("Creation"), @Tag("Abstract Factory") })
@@ -94,4 +97,61 @@ class TestAbstractFactory {
       assertInstanceOf(MacOSCheckbox.class, checkbox);
     }
   }
+
+  @Nested
+  @Order(3)
+  @DisplayName("Test form.")
+  class TestForm {
+
+    @Test
+    @Order(1)
+    @DisplayName("Test incremental render.")
+    void testIncrementalRender() {
+      final Form form = new Form(OSTypes.WINDOWS);
+      final int submit = form.addButton("Submit");
+      final int remember = form.addCheckbox("Remember me", false);
+      final int name = form.addInput("");
+      assertEquals(3, form.render());
+      assertEquals(0, form.render());
+
+      form.setValue(name, "Ada");
+      form.setChecked(remember, true);
+      form.setLabel(submit, "Submit");
+      assertEquals(2, form.getDirtyCount());
+      assertEquals(2, form.render());
+      assertEquals("Ada", form.getValue(name));
+      assertTrue(form.isChecked(remember));
+      assertEquals(Form.Kind.BUTTON, form.getKind(submit));
+
+      assertThrows(IllegalArgumentException.class, () -> form.setChecked(submit, true));
+      assertThrows(IndexOutOfBoundsException.class, () -> form.setLabel(3, "Missing"));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test reskin.")
+    void testReskin() {
+      final int widgets = 100_000;
+      final Form form = new Form(OSTypes.WINDOWS);
+      for(int i = 0; i < widgets; i++) {
+        switch (i % 3) {
+          case 0 -> form.addButton("Button " + i);
+          case 1 -> form.addCheckbox("Checkbox " + i, i % 2 == 0);
+          default -> form.addInput("Input " + i);
+        }
+      }
+      assertEquals(widgets, form.render());
+      for(int i = 2; i < widgets; i += 999) {
+        form.setValue(i, "Changed " + i);
+      }
+      assertEquals(101, form.render());
+
+      form.reskin(OSTypes.MACOS);
+      assertEquals(OSTypes.MACOS, form.getTheme());
+      assertEquals(widgets, form.render());
+      assertEquals("Changed 1001", form.getValue(1001));
+      assertEquals(widgets, form.renderAll());
+      assertEquals(0, form.getDirtyCount());
+    }
+  }
 }
@@ -7,8 +7,23 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Tags;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -58,4 +73,107 @@ class TestBuilder {
     assertNull(person.getGender());
     assertNull(person.getAddress());
   }
+
+  @Test
+  void case5() {
+    final Person person = builder.setName("Anshuman").setAge(26).setGender("M").setAddress("Pune \u0928\u0917\u0930 \uD83C\uDFE0").build();
+    final Person missing = new Person("Ravi", null, null, null);
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(PersonCodec.encodedSize(person) + PersonCodec.encodedSize(missing));
+    PersonCodec.encode(person, buffer);
+    PersonCodec.encode(missing, buffer);
+    assertFalse(buffer.hasRemaining());
+    buffer.flip();
+
+    final PersonBuilder reused = new BasicPersonBuilder();
+    final Person decoded = PersonCodec.decode(buffer, reused);
+    assertEquals(person.getName(), decoded.getName());
+    assertEquals(person.getAge(), decoded.getAge());
+    assertEquals(person.getGender(), decoded.getGender());
+    assertEquals(person.getAddress(), decoded.getAddress());
+
+    final Person decodedMissing = PersonCodec.decode(buffer, reused);
+    assertEquals("Ravi", decodedMissing.getName());
+    assertNull(decodedMissing.getAge());
+    assertNull(decodedMissing.getGender());
+    assertNull(decodedMissing.getAddress());
+    assertFalse(buffer.hasRemaining());
+  }
+
+  @Test
+  void case6() {
+    final ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 2, 0 });
+    assertThrows(IllegalArgumentException.class, () -> PersonCodec.decode(buffer));
+  }
+
+  @Test
+  void case7(@TempDir Path directory) throws IOException {
+    final Path file = Files.writeString(directory.resolve("people.csv"), """
+      name,age,gender,address
+      Anshuman,26,M,Pune
+      "Doe, Jane",,F,"12 ""Main"" Street"\r
+
+      Ravi,-3,,
+      """.stripIndent());
+    try (Stream<Person> people = PersonImporter.csv(file, true)) {
+      final List<Person> persons = people.toList();
+      assertEquals(3, persons.size());
+      assertEquals("Anshuman", persons.get(0).getName());
+      assertEquals(26, persons.get(0).getAge());
+      assertEquals("Pune", persons.get(0).getAddress());
+      assertEquals("Doe, Jane", persons.get(1).getName());
+      assertEquals(0, persons.get(1).getAge());
+      assertEquals("F", persons.get(1).getGender());
+      assertEquals("12 \"Main\" Street", persons.get(1).getAddress());
+      assertEquals(-3, persons.get(2).getAge());
+      assertNull(persons.get(2).getGender());
+      assertNull(persons.get(2).getAddress());
+    }
+  }
+
+  @Test
+  void case8(@TempDir Path directory) throws IOException {
+    final Path file = Files.writeString(directory.resolve("people.jsonl"), """
+      {"name": "Anshuman", "age": 26, "gender": "M", "address": "Pune"}
+      {"address": "Caf\\u00e9 \\"Corner\\"", "id": 7, "tags": "x", "age": null, "name": "\\uD83D\\uDE00"}
+      {}
+      """.stripIndent());
+    try (Stream<Person> people = PersonImporter.jsonLines(file)) {
+      final List<Person> persons = people.toList();
+      assertEquals(3, persons.size());
+      assertEquals("Anshuman", persons.get(0).getName());
+      assertEquals(26, persons.get(0).getAge());
+      assertEquals("Café \"Corner\"", persons.get(1).getAddress());
+      assertEquals("\uD83D\uDE00", persons.get(1).getName());
+      assertEquals(0, persons.get(1).getAge());
+      assertNull(persons.get(2).getName());
+    }
+  }
+
+  @Test
+  void case9(@TempDir Path directory) throws IOException {
+    final Path file = directory.resolve("people.csv");
+    Files.write(file, IntStream.range(0, 100_000).mapToObj(i -> "Person " + i + "," + (i % 100) + ",M,Address " + i).toList());
+
+    try (Stream<Person> people = PersonImporter.csv(file, false)) {
+      final List<Person> persons = people.parallel().collect(Collectors.toList());
+      assertEquals(100_000, persons.size());
+      for(int i = 0; i < persons.size(); i++) {
+        assertEquals("Person " + i, persons.get(i).getName());
+        assertEquals(i % 100, persons.get(i).getAge());
+      }
+    }
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      final PersonSpliterator spliterator = new PersonSpliterator(channel, PersonImporter.Format.CSV, channel.size(), 100);
+      assertEquals(4_950_000L, StreamSupport.stream(spliterator, false).mapToLong(Person::getAge).sum());
+    }
+  }
+
+  @Test
+  void case10(@TempDir Path directory) throws IOException {
+    final Path file = Files.writeString(directory.resolve("people.csv"), "Anshuman,twenty,M,Pune\n");
+    try (Stream<Person> people = PersonImporter.csv(file, false)) {
+      assertThrows(IllegalArgumentException.class, people::toList);
+    }
+  }
 }
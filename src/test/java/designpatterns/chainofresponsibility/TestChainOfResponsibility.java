@@ -7,9 +7,33 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Tags;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @Tags({ @Tag("Behavioural"), @Tag("Chain Of Responsibility") })
@@ -47,4 +71,549 @@ class TestChainOfResponsibility {
   void case5() {
     handler.handleRequest(new Request(RequestType.COMPLAINT, "Delay in delivery."));
   }
+
+  @Test
+  void case6() {
+    final Request first = Requests.of(RequestType.BILLING, "Refund not initiated.");
+    final Request second = Requests.of(RequestType.BILLING, new String("Refund not initiated."));
+    assertSame(first, second);
+    assertNotSame(first, Requests.of(RequestType.PRODUCT, "Refund not initiated."));
+    handler.handleRequest(second);
+  }
+
+  @Test
+  void case7() {
+    final Requests requests = new Requests(1);
+    final Request pooled = requests.get(RequestType.GENERAL, "Coupon expiration duration.");
+    assertSame(pooled, requests.get(RequestType.GENERAL, "Coupon expiration duration."));
+    assertNotSame(requests.get(RequestType.GENERAL, "Store timings."), requests.get(RequestType.GENERAL, "Store timings."));
+    assertEquals(1, requests.size(RequestType.GENERAL));
+  }
+
+  @Test
+  void case8() {
+    final ReusableRequest request = Requests.reusable();
+    handler.handleRequest(request.reset(RequestType.TECHNICAL, "Unable to login."));
+    assertEquals(RequestType.TECHNICAL, request.getType());
+    handler.handleRequest(request.reset(RequestType.COMPLAINT, "Delay in delivery."));
+    assertEquals(RequestType.COMPLAINT, request.getType());
+    assertEquals("Delay in delivery.", request.getQuery());
+  }
+
+  @Test
+  void case9() {
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final SupportHandler billing = new BillingSupportHandler();
+      final SupportHandler audit = new BillingSupportHandler();
+      final SupportHandler slow = new BillingSupportHandler() {
+        @Override
+        public void process(Request request) {
+          try {
+            Thread.sleep(1_000);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      };
+      final BroadcastSupportDispatcher dispatcher = new BroadcastSupportDispatcher(
+        List.of(billing, new TechnicalSupportHandler(), slow, audit), executor,
+        Duration.ofSeconds(5), BroadcastSupportDispatcher.Ordering.HANDLER_ORDER
+      ).setTimeout(slow, Duration.ofMillis(50));
+
+      final List<BroadcastSupportDispatcher.Outcome> outcomes = dispatcher.dispatch(new Request(RequestType.BILLING, "Refund not initiated."));
+      assertEquals(3, outcomes.size());
+      assertSame(billing, outcomes.get(0).handler());
+      assertEquals(BroadcastSupportDispatcher.Status.HANDLED, outcomes.get(0).status());
+      assertSame(slow, outcomes.get(1).handler());
+      assertEquals(BroadcastSupportDispatcher.Status.TIMED_OUT, outcomes.get(1).status());
+      assertSame(audit, outcomes.get(2).handler());
+      assertEquals(BroadcastSupportDispatcher.Status.HANDLED, outcomes.get(2).status());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void case10() {
+    final BroadcastSupportDispatcher dispatcher = new BroadcastSupportDispatcher(
+      List.of(new BillingSupportHandler(), new TechnicalSupportHandler()), Runnable::run,
+      Duration.ofSeconds(1), BroadcastSupportDispatcher.Ordering.COMPLETION_ORDER
+    );
+    final List<BroadcastSupportDispatcher.Outcome> outcomes = dispatcher.dispatch(new Request(RequestType.COMPLAINT, "Delay in delivery."));
+    assertEquals(1, outcomes.size());
+    assertInstanceOf(NoSupportHandler.class, outcomes.get(0).handler());
+  }
+
+  @Test
+  void case11(@TempDir Path directory) {
+    try (RequestJournal journal = new RequestJournal(directory, 256, 4)) {
+      final long refund = journal.append(new Request(RequestType.BILLING, "Refund not initiated."));
+      journal.append(new Request(RequestType.TECHNICAL, "Unable to login."));
+      journal.complete(refund);
+      for(int i = 0; i < 20; i++) {
+        new JournalingSupportHandler(journal, handler).handleRequest(new Request(RequestType.GENERAL, "Query " + i));
+      }
+      journal.append(new Request(RequestType.COMPLAINT, "Delay in delivery."));
+    }
+
+    final List<Request> replayed = new ArrayList<>();
+    try (RequestJournal journal = new RequestJournal(directory, 256, 4)) {
+      final List<RequestJournal.Entry> pending = journal.pending();
+      assertEquals(2, pending.size());
+      assertEquals(RequestType.TECHNICAL, pending.get(0).request().getType());
+      assertEquals("Unable to login.", pending.get(0).request().getQuery());
+      assertEquals(RequestType.COMPLAINT, pending.get(1).request().getType());
+      assertTrue(pending.get(0).id() < pending.get(1).id());
+
+      final SupportHandler recording = new BillingSupportHandler() {
+        @Override
+        public void handleRequest(Request request) {
+          replayed.add(request);
+        }
+      };
+      assertEquals(2, new JournalingSupportHandler(journal, recording).recover());
+    }
+    assertEquals(2, replayed.size());
+
+    try (RequestJournal journal = new RequestJournal(directory, 256, 4)) {
+      assertTrue(journal.pending().isEmpty());
+    }
+  }
+
+  @Test
+  void case12(@TempDir Path directory) throws Exception {
+    try (RequestJournal journal = new RequestJournal(directory, 128, 1)) {
+      for(int i = 0; i < 50; i++) {
+        journal.complete(journal.append(new Request(RequestType.PRODUCT, "Discount on Product.")));
+      }
+    }
+    try (var files = Files.list(directory)) {
+      assertTrue(files.count() > 1);
+    }
+    try (RequestJournal journal = new RequestJournal(directory, 128, 1)) {
+      assertTrue(journal.pending().isEmpty());
+    }
+    try (var files = Files.list(directory)) {
+      assertEquals(1, files.count());
+    }
+  }
+
+  @Test
+  void case13() throws Exception {
+    final ConcurrentLinkedQueue<CountingHandler> created = new ConcurrentLinkedQueue<>();
+    final List<CompletableFuture<Void>> futures = new ArrayList<>();
+    try (ShardedSupportExecutor executor = new ShardedSupportExecutor(List.of(() -> {
+      final CountingHandler counting = new CountingHandler();
+      created.add(counting);
+      return counting;
+    }), 4)) {
+      assertEquals(4, executor.shardCount());
+      for(int i = 0; i < 10_000; i++) {
+        futures.add(executor.submit(new Request(RequestType.BILLING, "Refund " + i)));
+      }
+      CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+      final Request request = new Request(RequestType.BILLING, "Refund 1");
+      assertEquals(executor.shardFor(request), executor.shardFor(new Request(RequestType.BILLING, "Refund 1")));
+    }
+    assertEquals(4, created.size());
+    assertEquals(10_000, created.stream().mapToInt(counting -> counting.handled).sum());
+    assertTrue(created.stream().allMatch(counting -> counting.threads.size() == 1));
+  }
+
+  @Test
+  void case14() {
+    assertInstanceOf(NoSupportHandler.class, SupportHandlerChain.createChain(List.of()));
+  }
+
+  @Test
+  void case15() {
+    final AtomicLong clock = new AtomicLong(1_000);
+    final TokenBucket bucket = new TokenBucket(3, 2, clock::get);
+    int accepted = 0;
+    for(int i = 0; i < 5; i++) {
+      accepted += bucket.tryAcquire() ? 1 : 0;
+    }
+    assertEquals(3, accepted);
+
+    clock.addAndGet(250);
+    assertFalse(bucket.tryAcquire());
+    clock.addAndGet(250);
+    assertTrue(bucket.tryAcquire());
+    assertFalse(bucket.tryAcquire());
+
+    clock.addAndGet(10_000);
+    assertEquals(0, bucket.availableTokens());
+    assertTrue(bucket.tryAcquire());
+    assertEquals(2, bucket.availableTokens());
+  }
+
+  @Test
+  void case16() throws Exception {
+    final int capacity = 1_000;
+    final int rate = 10_000;
+    final long started = System.nanoTime();
+    final TokenBucket bucket = new TokenBucket(capacity, rate);
+    final AtomicInteger accepted = new AtomicInteger();
+    final List<Thread> threads = new ArrayList<>();
+    for(int i = 0; i < 8; i++) {
+      final Thread thread = new Thread(() -> {
+        for(int j = 0; j < 200_000; j++) {
+          if(bucket.tryAcquire()) {
+            accepted.incrementAndGet();
+          }
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for(Thread thread : threads) {
+      thread.join();
+    }
+    final long elapsedMillis = (System.nanoTime() - started) / 1_000_000 + 1;
+    assertTrue(accepted.get() >= capacity);
+    assertTrue(accepted.get() <= capacity + rate * elapsedMillis / 1000,
+               accepted.get() + " tokens granted in " + elapsedMillis + " ms.");
+  }
+
+  @Test
+  void case17() {
+    final AtomicLong clock = new AtomicLong();
+    final CountingHandler billing = new CountingHandler();
+    final RateLimitingSupportHandler limiter = new RateLimitingSupportHandler(
+      Map.of(RequestType.BILLING, new TokenBucket(10, 10, clock::get))
+    );
+    final SupportHandler chain = SupportHandlerChain.createChain(List.of(limiter, billing));
+
+    for(int burst = 0; burst < 3; burst++) {
+      for(int i = 0; i < 100; i++) {
+        chain.handleRequest(new Request(RequestType.BILLING, "Refund not initiated."));
+      }
+      clock.addAndGet(500);
+    }
+    assertEquals(20, billing.handled);
+    assertEquals(280, limiter.getRejectedCount());
+    chain.handleRequest(new Request(RequestType.TECHNICAL, "Unable to login."));
+    assertEquals(280, limiter.getRejectedCount());
+  }
+
+  @Test
+  void case18() {
+    final AtomicInteger queueDepth = new AtomicInteger();
+    final CountingHandler billing = new CountingHandler();
+    final LoadSheddingSupportHandler shedder = new LoadSheddingSupportHandler(
+      queueDepth::get, Map.of(RequestType.COMPLAINT, 10, RequestType.BILLING, 100)
+    );
+    final SupportHandler chain = SupportHandlerChain.createChain(List.of(shedder, billing));
+
+    chain.handleRequest(new Request(RequestType.COMPLAINT, "Delay in delivery."));
+    assertEquals(0, shedder.getShedCount());
+    queueDepth.set(50);
+    chain.handleRequest(new Request(RequestType.COMPLAINT, "Delay in delivery."));
+    chain.handleRequest(new Request(RequestType.BILLING, "Refund not initiated."));
+    assertEquals(1, shedder.getShedCount());
+    assertEquals(1, billing.handled);
+    queueDepth.set(100);
+    chain.handleRequest(new Request(RequestType.BILLING, "Refund not initiated."));
+    assertEquals(2, shedder.getShedCount());
+    assertEquals(1, billing.handled);
+  }
+
+  @Test
+  void case19(@TempDir Path directory) throws Exception {
+    final Path config = Files.writeString(directory.resolve("chain.conf"), "# Support chain\nbilling\nproduct\n");
+    try (ReloadableSupportChain chain = new ReloadableSupportChain(config)) {
+      assertEquals(List.of("billing", "product"), chain.getHandlerNames());
+      // Answered by the whole chain, not only its head.
+      assertTrue(chain.canHandle(new Request(RequestType.PRODUCT, "Discount on Product.")));
+      chain.process(new Request(RequestType.PRODUCT, "Discount on Product."));
+      chain.handleRequest(new Request(RequestType.TECHNICAL, "Unable to login."));
+
+      Files.writeString(config, "technical # first\nGeneral\n");
+      final long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+      while(!chain.getHandlerNames().equals(List.of("technical", "General")) && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(List.of("technical", "General"), chain.getHandlerNames());
+      assertTrue(chain.canHandle(new Request(RequestType.GENERAL, "Coupon expiration duration.")));
+
+      Files.writeString(config, "unknown\n");
+      assertFalse(chain.reload());
+      Files.writeString(config, "");
+      assertFalse(chain.reload());
+      assertEquals(List.of("technical", "General"), chain.getHandlerNames());
+    }
+  }
+
+  @Test
+  @DisplayName("Test weighted fair scheduling and aging.")
+  void case20() {
+    final AtomicLong clock = new AtomicLong();
+    final List<RequestType> order = new ArrayList<>();
+    final SupportHandler recorder = new GeneralSupportHandler() {
+      @Override
+      public boolean canHandle(Request request) {
+        return true;
+      }
+
+      @Override
+      public void process(Request request) {
+        order.add(request.getType());
+      }
+    };
+    final PrioritySupportScheduler scheduler = new PrioritySupportScheduler(recorder, Map.of(RequestType.BILLING, 3),
+                                                                            Duration.ofMillis(100), clock::get);
+    for(int i = 0; i < 4; i++) {
+      scheduler.submit(new Request(RequestType.GENERAL, "Question " + i));
+    }
+    final List<CompletableFuture<Void>> billing = new ArrayList<>();
+    for(int i = 0; i < 6; i++) {
+      billing.add(scheduler.submit(new Request(RequestType.BILLING, "Refund " + i)));
+    }
+    assertEquals(6, scheduler.getQueuedCount(RequestType.BILLING));
+    while(scheduler.runNext()) {
+      // Drain.
+    }
+    final RequestType B = RequestType.BILLING;
+    final RequestType G = RequestType.GENERAL;
+    assertEquals(List.of(B, B, B, G, B, B, B, G, G, G), order);
+    assertTrue(billing.stream().allMatch(CompletableFuture::isDone));
+
+    order.clear();
+    scheduler.submit(new Request(RequestType.GENERAL, "Old question"));
+    clock.addAndGet(Duration.ofMillis(90).toNanos());
+    for(int i = 0; i < 6; i++) {
+      scheduler.submit(new Request(RequestType.BILLING, "Refund " + i));
+    }
+    clock.addAndGet(Duration.ofMillis(10).toNanos());
+    // The general question has waited 100 ms and is served before the billing burst.
+    assertTrue(scheduler.runNext());
+    assertEquals(List.of(G), order);
+  }
+
+  @Test
+  @DisplayName("Test scheduler thread.")
+  void case21() throws Exception {
+    final AtomicInteger handled = new AtomicInteger();
+    final SupportHandler counter = new GeneralSupportHandler() {
+      @Override
+      public boolean canHandle(Request request) {
+        return true;
+      }
+
+      @Override
+      public void process(Request request) {
+        handled.incrementAndGet();
+      }
+    };
+    final PrioritySupportScheduler scheduler = new PrioritySupportScheduler(counter, Map.of(RequestType.BILLING, 4),
+                                                                            Duration.ofMillis(50));
+    scheduler.start();
+    final ExecutorService producers = Executors.newFixedThreadPool(4);
+    try {
+      final List<CompletableFuture<CompletableFuture<Void>>> submitted = new ArrayList<>();
+      for(int i = 0; i < 1000; i++) {
+        final RequestType type = RequestType.values()[i % RequestType.values().length];
+        submitted.add(CompletableFuture.supplyAsync(() -> scheduler.submit(new Request(type, "Query.")), producers));
+      }
+      for(CompletableFuture<CompletableFuture<Void>> submission : submitted) {
+        submission.get().get();
+      }
+    } finally {
+      producers.shutdown();
+      scheduler.close();
+    }
+    assertEquals(1000, handled.get());
+    assertThrows(IllegalStateException.class, () -> scheduler.submit(new Request(RequestType.BILLING, "Late.")));
+  }
+
+  @Test
+  void case22() {
+    // A thread holding an older clock reading must not see the time wrap around and refill the bucket.
+    final AtomicLong clock = new AtomicLong();
+    final TokenBucket bucket = new TokenBucket(1, 1, clock::get);
+    assertTrue(bucket.tryAcquire());
+    clock.set(1_000);
+    assertTrue(bucket.tryAcquire());
+    clock.set(999);
+    assertFalse(bucket.tryAcquire());
+    clock.set(1_999);
+    assertFalse(bucket.tryAcquire());
+    clock.set(2_000);
+    assertTrue(bucket.tryAcquire());
+
+    // A long idle period refills the bucket instead of overflowing the refill computation.
+    final TokenBucket fast = new TokenBucket(TokenBucket.MAX_TOKENS, TokenBucket.MAX_TOKENS * 1000, clock::get);
+    assertTrue(fast.tryAcquire());
+    clock.addAndGet(1L << 38);
+    assertTrue(fast.tryAcquire());
+    assertEquals(TokenBucket.MAX_TOKENS - 1, fast.availableTokens());
+  }
+
+  @Test
+  @DisplayName("Test closing the scheduler while requests are submitted.")
+  void case23() throws Exception {
+    for(int round = 0; round < 50; round++) {
+      final PrioritySupportScheduler scheduler = new PrioritySupportScheduler(new NoSupportHandler(), Map.of(),
+                                                                              Duration.ofMillis(50));
+      scheduler.start();
+      final ConcurrentLinkedQueue<CompletableFuture<Void>> accepted = new ConcurrentLinkedQueue<>();
+      final List<Thread> producers = new ArrayList<>();
+      for(int i = 0; i < 4; i++) {
+        final Thread producer = new Thread(() -> {
+          try {
+            while(true) {
+              accepted.add(scheduler.submit(new Request(RequestType.GENERAL, "Query.")));
+            }
+          } catch (IllegalStateException closed) {
+            // Expected once the scheduler is closed.
+          }
+        });
+        producers.add(producer);
+        producer.start();
+      }
+      Thread.sleep(1);
+      scheduler.close();
+      for(Thread producer : producers) {
+        producer.join();
+      }
+      // Every accepted request is either handled or failed, never left pending.
+      for(CompletableFuture<Void> future : accepted) {
+        assertTrue(future.isDone());
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Test recovering a journal with a corrupt record.")
+  void case24(@TempDir Path directory) throws Exception {
+    // Bits flipped in the second record, which starts at 28: kind, crc 29, id 33, type 41, length 42, query 46.
+    final Map<Integer, Integer> corruptions = Map.of(29, 0x01, 41, 0x40, 42, 0x7f, 46, 0x01);
+    for(Map.Entry<Integer, Integer> corruption : corruptions.entrySet()) {
+      final Path segments = Files.createDirectory(directory.resolve("corrupt-at-" + corruption.getKey()));
+      try (RequestJournal journal = new RequestJournal(segments, 256, 1)) {
+        journal.append(new Request(RequestType.BILLING, "First."));
+        journal.append(new Request(RequestType.TECHNICAL, "Second."));
+      }
+      try (var files = Files.list(segments);
+           RandomAccessFile file = new RandomAccessFile(files.findFirst().orElseThrow().toFile(), "rw")) {
+        file.seek(corruption.getKey());
+        final int original = file.read();
+        file.seek(corruption.getKey());
+        file.write(original ^ corruption.getValue());
+      }
+      try (RequestJournal journal = new RequestJournal(segments, 256, 1)) {
+        final List<RequestJournal.Entry> pending = journal.pending();
+        assertEquals(1, pending.size());
+        assertEquals("First.", pending.get(0).request().getQuery());
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Test the request pool under contention and with reusable requests.")
+  void case25() throws Exception {
+    final Requests requests = new Requests(8);
+    assertNull(requests.get(RequestType.GENERAL, null).getQuery());
+    final List<Thread> threads = new ArrayList<>();
+    for(int t = 0; t < 8; t++) {
+      final int offset = t * 100;
+      final Thread thread = new Thread(() -> {
+        for(int i = 0; i < 100; i++) {
+          requests.get(RequestType.GENERAL, "Query " + (offset + i));
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for(Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(8, requests.size(RequestType.GENERAL));
+
+    final List<String> queries = new ArrayList<>();
+    final SupportHandler recording = new BillingSupportHandler() {
+      @Override
+      public void handleRequest(Request request) {
+        queries.add(request.getQuery());
+      }
+    };
+    final PrioritySupportScheduler scheduler = new PrioritySupportScheduler(recording, Map.of(), Duration.ofMillis(50));
+    final ReusableRequest request = Requests.reusable();
+    scheduler.submit(request.reset(RequestType.BILLING, "Refund not initiated."));
+    scheduler.submit(request.reset(RequestType.BILLING, "Invoice missing."));
+    while(scheduler.runNext()) {
+      // Drain on this thread.
+    }
+    assertEquals(List.of("Refund not initiated.", "Invoice missing."), queries);
+  }
+
+  @Test
+  @DisplayName("Test token bucket refill rates that are not a multiple of 1000 per second.")
+  void case26() {
+    for(int rate : new int[] { 1_001, 1_500, 2_999 }) {
+      final int capacity = 10;
+      final AtomicLong clock = new AtomicLong();
+      final TokenBucket bucket = new TokenBucket(capacity, rate, clock::get);
+      long granted = 0;
+      for(long millis = 0; millis <= 5_000; millis++) {
+        clock.set(millis);
+        for(int i = 0; i < 100 && bucket.tryAcquire(); i++) {
+          granted++;
+        }
+        // Drained every millisecond, so every token that became due has been granted.
+        assertEquals(capacity + rate * millis / 1000, granted, rate + " per second after " + millis + " ms.");
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Test the journaling handler through canHandle and process.")
+  void case27(@TempDir Path directory) {
+    final SupportHandler failing = new ProductSupportHandler() {
+      @Override
+      public void process(Request request) {
+        throw new IllegalStateException("Product support is down.");
+      }
+    };
+    final SupportHandler chain = SupportHandlerChain.createChain(List.of(new BillingSupportHandler(), failing));
+    final Request request = new Request(RequestType.PRODUCT, "Discount on Product.");
+    try (RequestJournal journal = new RequestJournal(directory, 256, 1)) {
+      final JournalingSupportHandler journaling = new JournalingSupportHandler(journal, chain);
+      // Accepted by the second handler of the chain, not the head.
+      assertTrue(journaling.canHandle(request));
+      assertThrows(IllegalStateException.class, () -> journaling.process(request));
+    }
+    try (RequestJournal journal = new RequestJournal(directory, 256, 1)) {
+      assertEquals(1, journal.pending().size());
+      assertEquals("Discount on Product.", journal.pending().get(0).request().getQuery());
+    }
+  }
+
+  @Test
+  @DisplayName("Test closing a scheduler that was never started.")
+  void case28() {
+    final CountingHandler counter = new CountingHandler();
+    final List<CompletableFuture<Void>> submitted = new ArrayList<>();
+    try (PrioritySupportScheduler scheduler = new PrioritySupportScheduler(counter, Map.of(), Duration.ofMillis(50))) {
+      for(int i = 0; i < 3; i++) {
+        submitted.add(scheduler.submit(new Request(RequestType.BILLING, "Refund not initiated.")));
+      }
+    }
+    for(CompletableFuture<Void> future : submitted) {
+      assertTrue(future.isDone());
+    }
+    assertEquals(3, counter.handled);
+  }
+
+  private static class CountingHandler extends BillingSupportHandler {
+    private final Set<Thread> threads = new HashSet<>();
+    private int handled;
+
+    @Override
+    public void process(Request request) {
+      threads.add(Thread.currentThread());
+      handled++;
+    }
+  }
 }
@@ -0,0 +1,117 @@
+package designpatterns.chainofresponsibility;
+
+import designpatterns.StressHarness;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Stress chain of responsibility under concurrent dispatch.")
+@Tag(StressHarness.TAG)
+class TestChainOfResponsibilityStress {
+  private static final Logger log = LoggerFactory.getLogger(TestChainOfResponsibilityStress.class);
+
+  private static final int THREADS = 32;
+
+  @Test
+  @DisplayName("Test concurrent dispatch through a shared chain.")
+  void case1() {
+    final LongAdder fallthrough = new LongAdder();
+    final SupportHandler chain = SupportHandlerChain.createChain(List.of(SupportHandlerChain.createHandler("billing"),
+                                                                         SupportHandlerChain.createHandler("product"),
+                                                                         SupportHandlerChain.createHandler("technical"),
+                                                                         new DefaultSupportHandler() {
+      @Override
+      public boolean canHandle(Request request) {
+        return true;
+      }
+
+      @Override
+      public void process(Request request) {
+        fallthrough.increment();
+      }
+    }));
+    final RequestType[] types = RequestType.values();
+    final long perThread = 50_000L * StressHarness.scale();
+    final StressHarness.Result result = StressHarness.run("Chain dispatch", THREADS, perThread, (thread, iteration) -> {
+      chain.handleRequest(Requests.of(types[(int) ((thread + iteration) % types.length)], "Stress query."));
+      return true;
+    });
+    // GENERAL and COMPLAINT requests fall through to the last handler.
+    final long expected = THREADS * perThread * 2 / types.length;
+    result.withRaces(Math.abs(fallthrough.sum() - expected)).report();
+    assertEquals(expected, fallthrough.sum());
+  }
+
+  @Test
+  @DisplayName("Test token bucket never over-grants.")
+  void case2() {
+    final int capacity = 100;
+    // Not a multiple of 1000, so a millisecond is worth a fraction of a token.
+    final int rate = 1_500;
+    final long origin = 1_000;
+    final AtomicLong time = new AtomicLong(origin);
+    final LongAdder granted = new LongAdder();
+    // An advancing clock exercises the refill path. Some readings lag by a millisecond, as for a thread that read
+    // the clock just before another one refilled the bucket.
+    final TokenBucket bucket = new TokenBucket(capacity, rate, () -> time.get() - ThreadLocalRandom.current().nextInt(2));
+    final StressHarness.Result result = StressHarness.run("Token bucket", THREADS, 100_000L * StressHarness.scale(), (thread, iteration) -> {
+      if(thread == 0 && iteration % 10 == 0) {
+        time.incrementAndGet();
+      }
+      if(bucket.tryAcquire()) {
+        granted.increment();
+      }
+      return true;
+    });
+    // The bucket may have read its origin a millisecond early.
+    final long allowed = capacity + rate * (time.get() - origin + 1) / 1000;
+    result.withRaces(Math.max(0, granted.sum() - allowed)).report();
+    assertTrue(granted.sum() <= allowed, granted.sum() + " tokens granted, at most " + allowed + " allowed.");
+  }
+
+  @Test
+  @DisplayName("Test scheduler latency per type under mixed load.")
+  void case3() throws InterruptedException {
+    final Map<RequestType, Integer> weights = Map.of(RequestType.BILLING, 8, RequestType.TECHNICAL, 4);
+    final SupportHandler chain = SupportHandlerChain.getDefaultChain();
+    final PrioritySupportScheduler scheduler = new PrioritySupportScheduler(chain, weights, Duration.ofMillis(50));
+    final RequestType[] types = RequestType.values();
+    final Map<RequestType, ConcurrentLinkedQueue<Long>> latencies = new EnumMap<>(RequestType.class);
+    for(RequestType type : types) {
+      latencies.put(type, new ConcurrentLinkedQueue<>());
+    }
+    scheduler.start();
+    try {
+      // Most of the load is GENERAL, as in a burst of general questions.
+      final StressHarness.Result result = StressHarness.run("Scheduler", THREADS, 2_000L * StressHarness.scale(), (thread, iteration) -> {
+        final RequestType type = iteration % 4 == 0 ? types[(int) (iteration / 4 % types.length)] : RequestType.GENERAL;
+        final long begin = System.nanoTime();
+        scheduler.submit(Requests.of(type, "Stress query.")).join();
+        latencies.get(type).add(System.nanoTime() - begin);
+        return true;
+      });
+      result.report();
+    } finally {
+      scheduler.close();
+    }
+    latencies.forEach((type, samples) -> {
+      final long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+      log.info("Scheduler {}: {} requests, p99 {} ns.", type, sorted.length,
+               sorted[(int) Math.ceil(0.99 * sorted.length) - 1]);
+    });
+  }
+}
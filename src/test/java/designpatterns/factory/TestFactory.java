@@ -6,8 +6,33 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Tags;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @Tags({ @Tag("Creation"), @Tag("Factory") })
@@ -34,4 +59,376 @@ class TestFactory {
     final Document presentation = DocumentFactory.getDocument(DocumentTypes.PRESENTATION);
     assertInstanceOf(Presentation.class, presentation);
   }
+
+  @Test
+  @DisplayName("Test lazy document paging.")
+  void testLazyDocument(@TempDir Path directory) throws IOException {
+    final byte[] bytes = content(10 * 1024 + 100);
+    final Path file = Files.write(directory.resolve("sheet.bin"), bytes);
+    final PageCache cache = new PageCache(4 * 1024, 1024);
+    final LazyDocument document = new LazyDocument(new SpreadSheet(), file, cache, 0);
+
+    assertThrows(IllegalStateException.class, () -> document.readPage(0));
+    document.open();
+    assertEquals(bytes.length, document.getSize());
+    assertEquals(11, document.getPageCount());
+    assertEquals(0, cache.getResidentBytes());
+
+    final byte[] read = new byte[bytes.length];
+    assertEquals(bytes.length, document.read(0, read, 0, read.length));
+    assertArrayEquals(bytes, read);
+    assertEquals(100, document.readPage(10).remaining());
+    assertTrue(cache.getResidentBytes() <= 4 * 1024);
+    assertEquals(7, cache.getEvictions());
+    assertEquals(11, cache.getMisses());
+    assertEquals(1, cache.getHits());
+    assertEquals(-1, document.read(bytes.length, read, 0, 1));
+
+    document.close();
+    assertEquals(0, cache.getResidentBytes());
+  }
+
+  @Test
+  @DisplayName("Test lazy document read-ahead.")
+  void testLazyDocumentReadAhead(@TempDir Path directory) throws Exception {
+    final Path file = Files.write(directory.resolve("report.bin"), content(8 * 1024));
+    final PageCache cache = new PageCache(1024 * 1024, 1024);
+    final LazyDocument document = DocumentFactory.getLazyDocument(DocumentTypes.REPORT, file, cache);
+    assertInstanceOf(Report.class, document.getDocument());
+    document.open();
+    document.readPage(0);
+    document.readPage(1);
+
+    final long deadline = System.nanoTime() + 10_000_000_000L;
+    while(cache.getResidentBytes() < 6 * 1024 && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals(6 * 1024, cache.getResidentBytes());
+    document.readPage(5);
+    assertEquals(2, cache.getMisses());
+    assertEquals(1.0 / 3, cache.getHitRate(), 1e-9);
+    document.close();
+  }
+
+  @Test
+  @DisplayName("Test pages loaded across an invalidation are not cached.")
+  void testPageCacheInvalidationDuringLoad() throws Exception {
+    final PageCache cache = new PageCache(16 * 1024, 1024);
+    final CountDownLatch loading = new CountDownLatch(1);
+    final CountDownLatch invalidated = new CountDownLatch(1);
+    final LongFunction<ByteBuffer> slowLoader = page -> {
+      loading.countDown();
+      try {
+        invalidated.await();
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+      return ByteBuffer.allocate(1024);
+    };
+
+    final CompletableFuture<ByteBuffer> read = CompletableFuture.supplyAsync(() -> cache.get(1, 0, slowLoader));
+    loading.await();
+    cache.invalidate(1, 0);
+    invalidated.countDown();
+    assertEquals(1024, read.get().remaining());
+    assertFalse(cache.contains(1, 0));
+
+    final CountDownLatch prefetching = new CountDownLatch(1);
+    final CountDownLatch closed = new CountDownLatch(1);
+    final CompletableFuture<Void> prefetch = CompletableFuture.runAsync(() -> cache.prefetch(2, 3, page -> {
+      prefetching.countDown();
+      try {
+        closed.await();
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+      return ByteBuffer.allocate(1024);
+    }));
+    prefetching.await();
+    cache.invalidate(2);
+    closed.countDown();
+    prefetch.get();
+    assertFalse(cache.contains(2, 3));
+    assertEquals(0, cache.getResidentBytes());
+  }
+
+  @Test
+  @DisplayName("Test read-ahead on a given executor.")
+  void testReadAheadExecutor(@TempDir Path directory) throws IOException {
+    final Path file = Files.write(directory.resolve("report.bin"), content(8 * 1024));
+    final PageCache cache = new PageCache(1024 * 1024, 1024);
+    final AtomicInteger tasks = new AtomicInteger();
+    final Executor inline = task -> {
+      tasks.incrementAndGet();
+      task.run();
+    };
+    final LazyDocument document = new LazyDocument(new Report(), file, cache, 2, LazyDocument.DEFAULT_CHECKPOINT_PAGES,
+                                                   inline);
+    document.open();
+    document.readPage(0);
+    document.readPage(1);
+    assertEquals(1, tasks.get());
+    assertEquals(4 * 1024, cache.getResidentBytes());
+    document.close();
+    assertEquals(0, cache.getResidentBytes());
+  }
+
+  @Test
+  @DisplayName("Test incremental document save.")
+  void testIncrementalSave(@TempDir Path directory) throws IOException {
+    final byte[] bytes = content(100 * 1024);
+    final Path file = Files.write(directory.resolve("sheet.bin"), bytes);
+    final Path changeLog = directory.resolve("sheet.bin.log");
+    final PageCache cache = new PageCache(16 * 1024, 1024);
+
+    final LazyDocument document = new LazyDocument(new SpreadSheet(), file, cache, 0, 4);
+    document.open();
+    final byte[] cell = "changed".getBytes();
+    document.write(5_000, cell, 0, cell.length);
+    document.write(1_020, cell, 0, cell.length);
+    assertEquals(3, document.getDirtyPageCount());
+    document.save();
+    assertEquals(0, document.getDirtyPageCount());
+    assertEquals(3 * (16 + 1024), Files.size(changeLog));
+    assertArrayEquals(bytes, Files.readAllBytes(file));
+
+    final byte[] read = new byte[cell.length];
+    document.read(5_000, read, 0, read.length);
+    assertArrayEquals(cell, read);
+
+    document.write(0, cell, 0, cell.length);
+    document.save();
+    assertEquals(0, Files.size(changeLog));
+    final byte[] saved = Files.readAllBytes(file);
+    assertEquals("changed", new String(saved, 5_000, cell.length));
+    assertEquals("changed", new String(saved, 1_020, cell.length));
+    assertEquals("changed", new String(saved, 0, cell.length));
+
+    document.write(50_000, cell, 0, cell.length);
+    document.close();
+    assertEquals(bytes[50_000], Files.readAllBytes(file)[50_000]);
+  }
+
+  @Test
+  @DisplayName("Test saved pages survive later unsaved writes.")
+  void testSaveThenUnsavedWrite(@TempDir Path directory) throws IOException {
+    final byte[] bytes = content(8 * 1024);
+    final Path file = Files.write(directory.resolve("report.bin"), bytes);
+    final PageCache cache = new PageCache(16 * 1024, 1024);
+
+    final LazyDocument document = new LazyDocument(new Report(), file, cache, 0);
+    document.open();
+    document.write(100, "A".getBytes(), 0, 1);
+    document.save();
+    document.write(100, "B".getBytes(), 0, 1);
+    // Checkpointing writes the saved version, while the unsaved one stays visible.
+    document.checkpoint();
+    assertEquals('A', Files.readAllBytes(file)[100]);
+    final byte[] read = new byte[1];
+    document.read(100, read, 0, 1);
+    assertEquals('B', read[0]);
+    assertEquals(1, document.getDirtyPageCount());
+    document.close();
+    assertEquals('A', Files.readAllBytes(file)[100]);
+
+    final LazyDocument reopened = new LazyDocument(new Report(), file, cache, 0);
+    reopened.open();
+    reopened.write(2_000, "A".getBytes(), 0, 1);
+    reopened.save();
+    reopened.write(2_000, "B".getBytes(), 0, 1);
+    reopened.close();
+    final byte[] closed = Files.readAllBytes(file);
+    assertEquals('A', closed[100]);
+    assertEquals('A', closed[2_000]);
+    assertEquals(0, Files.size(directory.resolve("report.bin.log")));
+  }
+
+  @Test
+  @DisplayName("Test change log recovery.")
+  void testChangeLogRecovery(@TempDir Path directory) throws IOException {
+    final Path file = Files.write(directory.resolve("report.bin"), content(10 * 1024));
+    final Path changeLog = directory.resolve("report.bin.log");
+    final PageCache cache = new PageCache(16 * 1024, 1024);
+
+    final LazyDocument crashed = new LazyDocument(new Report(), file, cache, 0);
+    crashed.open();
+    final byte[] cell = "changed".getBytes();
+    crashed.write(2_048, cell, 0, cell.length);
+    crashed.save();
+    Files.write(changeLog, new byte[] { 0, 0, 0 }, StandardOpenOption.APPEND);
+
+    final LazyDocument recovered = new LazyDocument(new Report(), file, cache, 0);
+    recovered.open();
+    assertEquals(0, Files.size(changeLog));
+    assertEquals("changed", new String(Files.readAllBytes(file), 2_048, cell.length));
+    final byte[] read = new byte[cell.length];
+    recovered.read(2_048, read, 0, read.length);
+    assertArrayEquals(cell, read);
+    recovered.close();
+  }
+
+  @Test
+  @DisplayName("Test change log recovery with another page size and corrupt records.")
+  void testChangeLogValidation(@TempDir Path directory) throws IOException {
+    final byte[] original = content(10 * 1024);
+    final Path file = Files.write(directory.resolve("report.bin"), original);
+    final Path changeLog = directory.resolve("report.bin.log");
+    final byte[] cell = "changed".getBytes();
+
+    final LazyDocument crashed = new LazyDocument(new Report(), file, new PageCache(16 * 1024, 1024), 0);
+    crashed.open();
+    crashed.write(3_000, cell, 0, cell.length);
+    crashed.save();
+    // A record with a negative length after the saved one.
+    Files.write(changeLog, ByteBuffer.allocate(16).putInt(12, -1).array(), StandardOpenOption.APPEND);
+
+    final LazyDocument smallerPages = new LazyDocument(new Report(), file, new PageCache(16 * 1024, 512), 0);
+    smallerPages.open();
+    assertEquals(0, Files.size(changeLog));
+    assertEquals("changed", new String(Files.readAllBytes(file), 3_000, cell.length));
+    smallerPages.write(5_000, cell, 0, cell.length);
+    smallerPages.save();
+    // Flip a bit in the saved page, which starts at 4_608, past the 16 byte record header.
+    try (FileChannel log = FileChannel.open(changeLog, StandardOpenOption.WRITE)) {
+      log.write(ByteBuffer.wrap(new byte[] { (byte) (original[4_708] ^ 1) }), 16 + 100);
+    }
+
+    final LazyDocument recovered = new LazyDocument(new Report(), file, new PageCache(16 * 1024, 1024), 0);
+    recovered.open();
+    assertEquals(0, Files.size(changeLog));
+    final byte[] read = new byte[cell.length];
+    recovered.read(5_000, read, 0, read.length);
+    assertArrayEquals(Arrays.copyOfRange(original, 5_000, 5_000 + cell.length), read);
+    recovered.read(3_000, read, 0, read.length);
+    assertArrayEquals(cell, read);
+    recovered.close();
+  }
+
+  @Test
+  @DisplayName("Test spreadsheet cell engine.")
+  void testCellEngine() {
+    final CellEngine cells = new SpreadSheet(10, 3).getCells();
+    final int a1 = cells.cell(0, 0);
+    final int b1 = cells.cell(0, 1);
+    final int c1 = cells.cell(0, 2);
+    final int a2 = cells.cell(1, 0);
+    cells.set(a1, 2);
+    cells.set(a2, 5);
+    cells.setFormula(b1, sheet -> sheet.get(a1) * 10, a1);
+    cells.setFormula(c1, CellEngine.sum(a1, b1, a2), a1, b1, a2);
+    assertEquals(2, cells.recalculate());
+    assertEquals(27, cells.get(c1));
+
+    cells.set(a2, 6);
+    assertEquals(1, cells.recalculate());
+    assertEquals(28, cells.get(c1));
+    assertEquals(0, cells.recalculate());
+
+    assertThrows(IllegalArgumentException.class, () -> cells.setFormula(a1, CellEngine.sum(c1), c1));
+    cells.set(b1, 1);
+    assertEquals(1, cells.recalculate());
+    assertEquals(9, cells.get(c1));
+  }
+
+  @Test
+  @DisplayName("Test parallel recalculation.")
+  void testParallelRecalculation() {
+    final int rows = 100_000;
+    final CellEngine cells = new CellEngine(rows, CellEngine.ColumnType.DOUBLE, CellEngine.ColumnType.DOUBLE, CellEngine.ColumnType.LONG);
+    for(int row = 0; row < rows; row++) {
+      final int input = cells.cell(row, 0);
+      final int doubled = cells.cell(row, 1);
+      cells.set(input, row + 0.25);
+      cells.setFormula(doubled, sheet -> sheet.get(input) * 2, input);
+      cells.setFormula(cells.cell(row, 2), sheet -> sheet.get(doubled) + 1, doubled);
+    }
+    assertEquals(2 * rows, cells.recalculate());
+    for(int row = 0; row < rows; row += 997) {
+      assertEquals(row * 2 + 0.5, cells.get(cells.cell(row, 1)));
+      assertEquals(row * 2L + 2, cells.getLong(cells.cell(row, 2)));
+    }
+
+    cells.set(cells.cell(42, 0), 100);
+    assertEquals(2, cells.recalculate());
+    assertEquals(201, cells.getLong(cells.cell(42, 2)));
+  }
+
+  @Test
+  @DisplayName("Test export formats.")
+  void testExportFormats(@TempDir Path directory) throws IOException {
+    final Report report = new Report();
+    report.addSection("Summary", "Revenue up, costs \"flat\"");
+    report.addSection("Notes", "<b>a & b</b>\nline two");
+    final DocumentExporter exporter = new DocumentExporter();
+
+    final Path csv = directory.resolve("report.csv");
+    exporter.export(report, ExportFormat.CSV, csv);
+    assertEquals("title,body\nSummary,\"Revenue up, costs \"\"flat\"\"\"\nNotes,\"<b>a & b</b>\nline two\"\n",
+                 Files.readString(csv));
+
+    final Path json = directory.resolve("report.json");
+    exporter.export(report, ExportFormat.JSON, json);
+    assertEquals("[\n{\"title\":\"Summary\",\"body\":\"Revenue up, costs \\\"flat\\\"\"},\n"
+                 + "{\"title\":\"Notes\",\"body\":\"<b>a & b</b>\\nline two\"}\n]\n", Files.readString(json));
+
+    final Presentation presentation = new Presentation();
+    presentation.addSlide("Intro", "<b>a & b</b>");
+    final Path html = directory.resolve("presentation.html");
+    exporter.export(presentation, ExportFormat.HTML, html);
+    assertEquals("<table>\n<thead><tr><th>title</th><th>content</th></tr></thead>\n<tbody>\n"
+                 + "<tr><td>Intro</td><td>&lt;b&gt;a &amp; b&lt;/b&gt;</td></tr>\n</tbody>\n</table>\n",
+                 Files.readString(html));
+  }
+
+  @Test
+  @DisplayName("Test streaming export.")
+  void testStreamingExport(@TempDir Path directory) throws Exception {
+    final int rows = 50_000;
+    final Exportable generated = new Exportable() {
+      @Override
+      public List<String> columns() {
+        return List.of("id", "text");
+      }
+
+      @Override
+      public void forEachRow(Consumer<String[]> action) {
+        final String[] row = new String[2];
+        for(int i = 0; i < rows; i++) {
+          row[0] = Integer.toString(i);
+          row[1] = "caf\u00e9 \ud83d\ude00 " + i;
+          action.accept(row);
+        }
+      }
+    };
+    // A small buffer splits multi-byte characters and surrogate pairs across writes.
+    final Path small = directory.resolve("small.csv");
+    final long written = new DocumentExporter(17).export(generated, ExportFormat.CSV, small);
+    assertEquals(Files.size(small), written);
+    final List<String> lines = Files.readAllLines(small);
+    assertEquals(rows + 1, lines.size());
+    assertEquals("12345,caf\u00e9 \ud83d\ude00 12345", lines.get(12346));
+
+    final Map<Path, Exportable> documents = new LinkedHashMap<>();
+    for(int i = 0; i < 8; i++) {
+      documents.put(directory.resolve("document-" + i + ".csv"), generated);
+    }
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final long total = DocumentExporter.exportAll(documents, ExportFormat.CSV, executor).get();
+      assertEquals(8 * written, total);
+      for(Path target : documents.keySet()) {
+        assertArrayEquals(Files.readAllBytes(small), Files.readAllBytes(target));
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static byte[] content(int length) {
+    final byte[] bytes = new byte[length];
+    for(int i = 0; i < length; i++) {
+      bytes[i] = (byte) (i * 31);
+    }
+    return bytes;
+  }
 }
@@ -10,13 +10,22 @@ import org.junit.jupiter.api.Tags;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @Tags({ @Tag("Creation"), @Tag("Prototype") })
@@ -78,5 +87,146 @@ class TestPrototype {
       assertNotEquals(employee.getAddress(), personCopy.getAddress());
       assertFalse(Arrays.equals(employee.getHobbies().toArray(), personCopy.getHobbies().toArray()));
     }
+
+    @Test
+    void case2() {
+      employee.setHobbies(null);
+      assertNull(employee.clone().getHobbies());
+      assertNull(employee.copy().getHobbies());
+    }
+  }
+
+  @Nested
+  @Order(2)
+  @DisplayName("Test binary codec.")
+  class TestBinaryCodec {
+
+    @Test
+    void case1() {
+      final Person person = new Person("Anshuman", 26, "Pune", new ArrayList<>(List.of("Movies", "Photography")));
+      final ByteBuffer buffer = ByteBuffer.allocate(PrototypeCodec.encodedSize(person));
+      PrototypeCodec.encode(person, buffer);
+      buffer.flip();
+
+      final Person decoded = PrototypeCodec.decodePerson(buffer);
+      assertEquals(person.getName(), decoded.getName());
+      assertEquals(person.getAge(), decoded.getAge());
+      assertEquals(person.getAddress(), decoded.getAddress());
+      assertEquals(person.getHobbies(), decoded.getHobbies());
+      assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    void case2() {
+      final Employee employee = new Employee("Anshuman", -1, null, null);
+      final ByteBuffer buffer = ByteBuffer.allocateDirect(PrototypeCodec.encodedSize(employee));
+      PrototypeCodec.encode(employee, buffer);
+      buffer.flip();
+
+      final Employee decoded = PrototypeCodec.decodeEmployee(buffer);
+      assertEquals("Anshuman", decoded.getName());
+      assertEquals(-1, decoded.getAge());
+      assertNull(decoded.getAddress());
+      assertNull(decoded.getHobbies());
+    }
+  }
+
+  @Nested
+  @Order(3)
+  @DisplayName("Test copiers.")
+  class TestCopiers {
+
+    @Test
+    void case1() {
+      final Employee employee = new Employee("Anshuman", 26, "Pune", new ArrayList<>(List.of("Movies")));
+      final Employee copy = employee.copy();
+      copy.addHobby("Music");
+
+      assertEquals(employee.getName(), copy.getName());
+      assertEquals(employee.getAge(), copy.getAge());
+      assertEquals(List.of("Movies"), employee.getHobbies());
+      assertEquals(employee.clone().getHobbies(), employee.copy().getHobbies());
+    }
+
+    @Test
+    void case2() {
+      final Person person = new Person("Anshuman", 26, "Pune", new ArrayList<>(List.of("Movies")));
+      assertSame(person.getHobbies(), PrototypeCopiers.person(CopyMode.SHALLOW).copy(person).getHobbies());
+      assertNotSame(person.getHobbies(), PrototypeCopiers.person(CopyMode.DEEP).copy(person).getHobbies());
+
+      final Employee employee = new Employee("Anshuman", 26, "Pune", null);
+      assertNull(PrototypeCopiers.EMPLOYEE.copy(employee).getHobbies());
+    }
+  }
+
+  @Nested
+  @Order(4)
+  @DisplayName("Test thread-safe template.")
+  class TestTemplate {
+
+    @Test
+    void case1() {
+      final PrototypeTemplate template = PrototypeTemplate.of(new Person("Anshuman", 26, "Pune", new ArrayList<>(List.of("Movies"))));
+      final Employee employee = template.newEmployee();
+      employee.addHobby("Music");
+      template.addHobby("Photography");
+
+      assertEquals(List.of("Movies", "Music"), employee.getHobbies());
+      assertEquals(List.of("Movies", "Photography"), template.newPerson().getHobbies());
+      assertThrows(UnsupportedOperationException.class, () -> template.getHobbies().add("Music"));
+    }
+
+    @Test
+    void case2() throws InterruptedException {
+      final PrototypeTemplate template = new PrototypeTemplate("Writer 0", 0, "Pune", List.of());
+      final AtomicBoolean running = new AtomicBoolean(true);
+      final ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+      final CountDownLatch start = new CountDownLatch(1);
+      final List<Thread> threads = new ArrayList<>();
+
+      threads.add(new Thread(() -> {
+        await(start);
+        for(int i = 1; i <= 2_000; i++) {
+          final int version = i;
+          template.update(person -> {
+            person.setName("Writer " + version);
+            person.setAge(version);
+            person.addHobby("Hobby " + version);
+            return person;
+          });
+        }
+        running.set(false);
+      }));
+      for(int reader = 0; reader < 4; reader++) {
+        threads.add(new Thread(() -> {
+          await(start);
+          int lastAge = 0;
+          while(running.get()) {
+            final Person person = template.newPerson();
+            if(!person.getName().equals("Writer " + person.getAge()) || person.getHobbies().size() != person.getAge()
+               || person.getAge() < lastAge) {
+              failures.add(person.getName() + "/" + person.getAge() + "/" + person.getHobbies().size());
+            }
+            lastAge = person.getAge();
+          }
+        }));
+      }
+      threads.forEach(Thread::start);
+      start.countDown();
+      for(Thread thread : threads) {
+        thread.join();
+      }
+
+      assertTrue(failures.isEmpty(), () -> "Torn clones: " + failures);
+      assertEquals(2_000, template.newPerson().getHobbies().size());
+    }
+
+    private void await(CountDownLatch latch) {
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
   }
 }
@@ -0,0 +1,55 @@
+package designpatterns.prototype;
+
+import designpatterns.StressHarness;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Stress prototypes under parallel cloning.")
+@Tag(StressHarness.TAG)
+class TestPrototypeStress {
+
+  private static final int THREADS = 32;
+
+  @Test
+  @DisplayName("Test cloning a template while it changes.")
+  void case1() {
+    final PrototypeTemplate template = new PrototypeTemplate("v0", 0, "Street", List.of("Chess"));
+    final StressHarness.Result result = StressHarness.run("Template clone", THREADS, 20_000L * StressHarness.scale(), (thread, iteration) -> {
+      if(thread == 0) {
+        final int version = (int) iteration + 1;
+        template.update(person -> {
+          person.setName("v" + version);
+          person.setAge(version);
+          return person;
+        });
+        return true;
+      }
+      // A clone mixing two versions of the template is a torn read.
+      final Person clone = template.newPerson();
+      return clone.getName().equals("v" + clone.getAge());
+    });
+    result.report();
+    assertEquals(0, result.races());
+  }
+
+  @Test
+  @DisplayName("Test parallel deep copies of a shared prototype.")
+  void case2() {
+    final Person shared = new Person("Ada", 36, "Street", new ArrayList<>(List.of("Chess", "Math")));
+    final StressHarness.Result result = StressHarness.run("Deep copy", THREADS, 50_000L * StressHarness.scale(), (thread, iteration) -> {
+      final Person copy = PrototypeCopiers.person(CopyMode.DEEP).copy(shared);
+      copy.addHobby("Thread " + thread);
+      // Deep copies must never share their hobbies with the prototype.
+      return copy.getHobbies() != shared.getHobbies() && copy.getHobbies().size() == 3;
+    });
+    result.report();
+    assertEquals(0, result.races());
+    assertEquals(List.of("Chess", "Math"), shared.getHobbies());
+  }
+}
@@ -0,0 +1,161 @@
+package designpatterns.singleton;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Test lifecycle manager of singletons.")
+@Tags({
+  @Tag("Singleton design pattern.")
+})
+class TestSingletonLifecycleManager {
+
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setup() {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @AfterEach
+  void teardown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("Test dependency order and shutdown.")
+  void case1() {
+    final List<String> closed = new ArrayList<>();
+    final SingletonLifecycleManager manager = new SingletonLifecycleManager()
+      .register("app", singletons -> new Resource("app", closed, singletons.get("cache", Resource.class),
+                                                  singletons.get("database", Resource.class)), "cache", "database")
+      .register("cache", singletons -> new Resource("cache", closed, singletons.get("config", Resource.class)), "config")
+      .register("database", singletons -> new Resource("database", closed, singletons.get("config", Resource.class)), "config")
+      .register("config", singletons -> new Resource("config", closed));
+    manager.start(executor);
+
+    final List<String> order = manager.getCreationOrder();
+    assertEquals("config", order.get(0));
+    assertEquals("app", order.get(3));
+    assertSame(manager.get("config", Resource.class), manager.get("app", Resource.class).dependencies[0].dependencies[0]);
+
+    manager.close();
+    assertEquals(List.of("app", order.get(2), order.get(1), "config"), closed);
+    assertThrows(IllegalStateException.class, () -> manager.get("app", Resource.class));
+  }
+
+  @Test
+  @DisplayName("Test independent singletons are created in parallel.")
+  void case2() {
+    final CountDownLatch both = new CountDownLatch(2);
+    final SingletonLifecycleManager manager = new SingletonLifecycleManager();
+    for(String name : List.of("left", "right")) {
+      manager.register(name, singletons -> {
+        both.countDown();
+        try {
+          // Only completes if the other factory runs at the same time.
+          assertTrue(both.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+        return name;
+      });
+    }
+    manager.start(executor);
+    assertEquals("left", manager.get("left", String.class));
+    manager.close();
+  }
+
+  @Test
+  @DisplayName("Test invalid graphs and failing factories.")
+  void case3() {
+    final SingletonLifecycleManager cyclic = new SingletonLifecycleManager()
+      .register("a", singletons -> "a", "b")
+      .register("b", singletons -> "b", "c")
+      .register("c", singletons -> "c", "a")
+      .register("d", singletons -> "d");
+    assertTrue(assertThrows(IllegalArgumentException.class, () -> cyclic.start(executor)).getMessage().contains("[a, b, c]"));
+
+    final SingletonLifecycleManager missing = new SingletonLifecycleManager().register("a", singletons -> "a", "b");
+    assertThrows(IllegalArgumentException.class, () -> missing.start(executor));
+
+    final List<String> closed = new ArrayList<>();
+    final SingletonLifecycleManager failing = new SingletonLifecycleManager()
+      .register("base", singletons -> new Resource("base", closed))
+      .register("broken", singletons -> {
+        throw new IllegalStateException("Broken.");
+      }, "base")
+      .register("top", singletons -> new Resource("top", closed), "broken");
+    assertEquals("Broken.", assertThrows(IllegalStateException.class, () -> failing.start(executor)).getMessage());
+    assertEquals(List.of("base"), closed);
+  }
+
+  @Test
+  @DisplayName("Test large dependency graph.")
+  void case4() {
+    final int count = 200;
+    final Random random = new Random(42);
+    final SingletonLifecycleManager manager = new SingletonLifecycleManager();
+    final List<List<String>> dependencies = new ArrayList<>();
+    for(int i = 0; i < count; i++) {
+      final List<String> reads = new ArrayList<>();
+      for(int j = 0; j < 3 && i > 0; j++) {
+        final String dependency = "singleton-" + random.nextInt(i);
+        if(!reads.contains(dependency)) {
+          reads.add(dependency);
+        }
+      }
+      dependencies.add(reads);
+      manager.register("singleton-" + i, singletons -> {
+        reads.forEach(name -> singletons.get(name, Object.class));
+        return new Object();
+      }, reads.toArray(String[]::new));
+    }
+    manager.start(executor);
+
+    final List<String> order = manager.getCreationOrder();
+    assertEquals(count, order.size());
+    for(int i = 0; i < count; i++) {
+      final int position = order.indexOf("singleton-" + i);
+      for(String dependency : dependencies.get(i)) {
+        assertTrue(order.indexOf(dependency) < position);
+      }
+    }
+    manager.close();
+  }
+
+  private static class Resource implements AutoCloseable {
+    private final String name;
+    private final List<String> closed;
+    private final Resource[] dependencies;
+
+    Resource(String name, List<String> closed, Resource... dependencies) {
+      this.name = name;
+      this.closed = closed;
+      this.dependencies = dependencies;
+    }
+
+    @Override
+    public void close() {
+      synchronized (closed) {
+        closed.add(name);
+      }
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package designpatterns.singleton;
+
+import designpatterns.StressHarness;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Stress lazy singletons under concurrent first access.")
+@Tag(StressHarness.TAG)
+class TestSingletonStress {
+
+  private static final int THREADS = 1000;
+
+  @Test
+  @DisplayName("Test thread unsafe lazy singleton.")
+  void case1() throws ReflectiveOperationException {
+    // SingletonLazy is documented as thread unsafe, so races are reported rather than failed.
+    race("SingletonLazy", SingletonLazy.class, SingletonLazy::getInstance);
+  }
+
+  @Test
+  @DisplayName("Test thread safe lazy singleton.")
+  void case2() throws ReflectiveOperationException {
+    final StressHarness.Result result = race("SingletonThreadSafe", SingletonThreadSafe.class,
+                                             SingletonThreadSafe::getInstance);
+    assertEquals(0, result.races());
+  }
+
+  /**
+   * Resets the singleton before each round, so every round races on its first creation, and counts the rounds in
+   * which more than one instance was handed out.
+   */
+  private static StressHarness.Result race(String name, Class<?> type, Supplier<Object> getInstance)
+      throws ReflectiveOperationException {
+    final Field instance = type.getDeclaredField("instance");
+    instance.setAccessible(true);
+    StressHarness.Result total = null;
+    long races = 0;
+    for(int round = 0; round < 20 * StressHarness.scale(); round++) {
+      instance.set(null, null);
+      final Set<Object> seen = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+      final StressHarness.Result result = StressHarness.run(name, THREADS, 1, (thread, iteration) -> {
+        seen.add(getInstance.get());
+        return true;
+      });
+      if(seen.size() > 1) {
+        races++;
+      }
+      total = total == null ? result : total.plus(result);
+    }
+    return total.withRaces(races).report();
+  }
+}